@@ -0,0 +1,60 @@
+package org.json.builder.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.JsonBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading, updating and writing documents with {@link JsonBuilder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BuilderBenchmark extends DocumentState {
+
+    private JsonBuilder loadedBuilder;
+
+    @Override
+    protected void prepare() {
+        loadedBuilder = JsonBuilder.objectBuilder().fromJsonFile(jsonFile).build();
+    }
+
+    @Benchmark
+    public JsonNode fromJsonFile() {
+        return JsonBuilder.objectBuilder().fromJsonFile(jsonFile).buildAsJsonNode();
+    }
+
+    @Benchmark
+    public JsonNode updateAndBuild() {
+        return loadedBuilder.update(shape.updatePath(), "updated").build().getNodeAt(shape.updatePath());
+    }
+
+    @Benchmark
+    public String toPrettyString() {
+        return loadedBuilder.toPrettyString();
+    }
+
+    @Benchmark
+    public void writeTo(Blackhole blackhole) {
+        loadedBuilder.writeTo(OutputStream.nullOutputStream());
+        blackhole.consume(loadedBuilder);
+    }
+
+    @Benchmark
+    public List<String> extractJsonPaths() {
+        return loadedBuilder.extractJsonPaths();
+    }
+
+    @Benchmark
+    public Map<String, String> extractJsonPathValueMap() {
+        return loadedBuilder.extractJsonPathValueMap();
+    }
+}
@@ -0,0 +1,141 @@
+package org.json.builder.benchmark;
+
+/**
+ * The shapes of the generated benchmark documents.
+ */
+public enum DocumentShape {
+
+    /** one object with many scalar fields */
+    FLAT {
+        @Override
+        void appendUnit(StringBuilder json, int unit) {
+            json.append("\"field").append(unit).append("\":\"value").append(unit).append("\",")
+                    .append("\"count").append(unit).append("\":").append(unit).append(',');
+        }
+
+        @Override
+        String updatePath() {
+            return "field1";
+        }
+
+        @Override
+        String leafPath() {
+            return "count0";
+        }
+
+        @Override
+        String ruleExpression() {
+            return "$[?(@.field0 == 'value0')]";
+        }
+    },
+
+    /** many branches of nested objects, each {@value #DEPTH} levels deep */
+    DEEP {
+        @Override
+        void appendUnit(StringBuilder json, int unit) {
+            json.append("\"node").append(unit).append("\":");
+            for (int level = 0; level < DEPTH; level++) {
+                json.append("{\"id\":").append(level).append(",\"level").append(level + 1).append("\":");
+            }
+            json.append("{\"leaf\":\"value").append(unit).append("\"}");
+            json.append("}".repeat(DEPTH)).append(',');
+        }
+
+        @Override
+        String updatePath() {
+            StringBuilder path = new StringBuilder("node0");
+            for (int level = 1; level <= DEPTH; level++) {
+                path.append(".level").append(level);
+            }
+            return path.append(".leaf").toString();
+        }
+
+        @Override
+        String leafPath() {
+            return updatePath();
+        }
+
+        @Override
+        String ruleExpression() {
+            return "$.node0.level1.level2[?(@.id == 2)]";
+        }
+    },
+
+    /** one large array of small objects */
+    WIDE_ARRAY {
+        @Override
+        String open() {
+            return "{\"items\":[";
+        }
+
+        @Override
+        String close() {
+            return "]}";
+        }
+
+        @Override
+        void appendUnit(StringBuilder json, int unit) {
+            json.append("{\"id\":").append(unit).append(",\"name\":\"item").append(unit)
+                    .append("\",\"active\":").append(unit % 2 == 0).append(",\"tags\":[\"a\",\"b\"]},");
+        }
+
+        @Override
+        String updatePath() {
+            return "items[0].name";
+        }
+
+        @Override
+        String leafPath() {
+            return "items[0].tags";
+        }
+
+        @Override
+        String ruleExpression() {
+            return "$.items[?(@.name == 'item0')]";
+        }
+    };
+
+    static final int DEPTH = 16;
+
+    /**
+     * Generates a document of about the given size.
+     *
+     * @param targetBytes the approximate size of the document
+     * @return the JSON document
+     */
+    public String generate(long targetBytes) {
+        StringBuilder json = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, targetBytes + 1024));
+        json.append(open());
+        int unit = 0;
+        do {
+            appendUnit(json, unit++);
+        } while (json.length() < targetBytes);
+        json.setLength(json.length() - 1);
+        return json.append(close()).toString();
+    }
+
+    String open() {
+        return "{";
+    }
+
+    String close() {
+        return "}";
+    }
+
+    abstract void appendUnit(StringBuilder json, int unit);
+
+    /**
+     * @return a path that exists in every generated document and is updated by the benchmarks
+     */
+    abstract String updatePath();
+
+    /**
+     * @return the path of a node looked up by the path finder benchmark
+     */
+    abstract String leafPath();
+
+    /**
+     * @return a rule-book expression that matches every generated document
+     */
+    abstract String ruleExpression();
+}
@@ -0,0 +1,59 @@
+package org.json.builder.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.JsonBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A generated document of every size and shape, written to a temporary file before the benchmarks of a trial run.
+ */
+@State(Scope.Benchmark)
+public class DocumentState {
+
+    @Param({"1KB", "1MB", "100MB"})
+    public String size;
+
+    @Param({"FLAT", "DEEP", "WIDE_ARRAY"})
+    public DocumentShape shape;
+
+    protected File jsonFile;
+    protected JsonNode jsonNode;
+
+    @Setup(Level.Trial)
+    public void writeDocument() throws IOException {
+        Path path = Files.createTempFile("json-builder-" + shape + "-" + size + "-", ".json");
+        Files.writeString(path, shape.generate(toBytes(size)), StandardCharsets.UTF_8);
+        jsonFile = path.toFile();
+        jsonNode = JsonBuilder.objectBuilder().fromJsonFile(jsonFile).buildAsJsonNode();
+        prepare();
+    }
+
+    /**
+     * Called once the document is written. JMH does not order the setup methods of a class and its superclass,
+     * so benchmarks prepare their own state here instead of in a separate setup method.
+     */
+    protected void prepare() throws IOException {
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDocument() throws IOException {
+        Files.deleteIfExists(jsonFile.toPath());
+    }
+
+    static long toBytes(String size) {
+        String unit = size.replaceAll("[0-9]", "");
+        long value = Long.parseLong(size.replaceAll("[^0-9]", ""));
+        return switch (unit) {
+            case "KB" -> value * 1024;
+            case "MB" -> value * 1024 * 1024;
+            case "GB" -> value * 1024 * 1024 * 1024;
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package org.json.builder.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.helper.JsonPathFinder;
+import org.json.builder.helper.JsonPathIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of looking up the path of a sub-node with {@link JsonPathFinder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PathFinderBenchmark extends DocumentState {
+
+    private JsonNode subNode;
+    private JsonPathIndex index;
+
+    @Override
+    protected void prepare() {
+        subNode = JsonBuilder.getNodeAt(jsonNode, shape.leafPath());
+        index = JsonPathIndex.of(jsonNode);
+    }
+
+    @Benchmark
+    public String getJsonPath() {
+        return JsonPathFinder.getJsonPath(jsonNode, subNode);
+    }
+
+    @Benchmark
+    public String indexedGetJsonPath() {
+        return index.getJsonPath(subNode);
+    }
+}
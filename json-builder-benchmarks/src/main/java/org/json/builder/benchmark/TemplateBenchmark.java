@@ -0,0 +1,63 @@
+package org.json.builder.benchmark;
+
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.JsonTemplate;
+import org.json.builder.core.NodeType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares producing an order payload with {@link JsonTemplate} against loading, updating and printing it with
+ * {@link JsonBuilder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TemplateBenchmark {
+
+    private static final String ORDER = """
+            {"orderId":"${orderId}","customer":{"id":"${customerId}","name":"Jane Doe","tier":"GOLD"},
+             "items":[{"sku":"SKU-1","quantity":"${quantity}","price":19.99},{"sku":"SKU-2","quantity":1,"price":5.5}],
+             "shipping":{"method":"EXPRESS","address":{"street":"1 Main St","city":"Springfield","zip":"12345"}},
+             "notes":"leave at the door"}""";
+
+    private Path templateFile;
+    private JsonTemplate template;
+    private final Map<String, Object> values = Map.of("orderId", "A-1001", "customerId", "C-42", "quantity", 3);
+
+    @Setup(Level.Trial)
+    public void writeTemplate() throws IOException {
+        templateFile = Files.createTempFile("json-builder-template-", ".json");
+        Files.writeString(templateFile, ORDER, StandardCharsets.UTF_8);
+        template = JsonTemplate.compile(templateFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTemplate() throws IOException {
+        Files.deleteIfExists(templateFile);
+    }
+
+    @Benchmark
+    public String builderUpdateAndPrint() {
+        return JsonBuilder.objectBuilder().fromJsonFile(templateFile.toFile())
+                .update("orderId", "A-1001")
+                .update("customer.id", "C-42")
+                .update("items[0].quantity", 3, NodeType.INTEGER)
+                .build()
+                .toPrettyString();
+    }
+
+    @Benchmark
+    public byte[] templateRender() {
+        return template.renderToBytes(values);
+    }
+}
@@ -0,0 +1,61 @@
+package org.json.builder.benchmark;
+
+import org.json.builder.helper.CompiledRuleBook;
+import org.json.builder.helper.JsonValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of validating documents with {@link JsonValidator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ValidatorBenchmark extends DocumentState {
+
+    private File ruleBookFile;
+    private CompiledRuleBook ruleBook;
+
+    @Override
+    protected void prepare() throws IOException {
+        String ruleBook = """
+                [
+                  {
+                    "description": "generated rule",
+                    "dirCheck": true,
+                    "dirValidation": { "expressions": ["%s"] },
+                    "indValidation": { "condition": "", "expressions": [] }
+                  }
+                ]""".formatted(shape.ruleExpression());
+        ruleBookFile = Files.createTempFile("json-builder-rule-book-", ".json").toFile();
+        Files.writeString(ruleBookFile.toPath(), ruleBook);
+        this.ruleBook = CompiledRuleBook.compile(ruleBookFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRuleBook() throws IOException {
+        Files.deleteIfExists(ruleBookFile.toPath());
+    }
+
+    @Benchmark
+    public List<String> verifyFiles() {
+        return JsonValidator.verify(ruleBookFile, jsonFile);
+    }
+
+    @Benchmark
+    public List<String> verifyCompiledRuleBook() {
+        return JsonValidator.verify(ruleBook, jsonNode);
+    }
+
+    @Benchmark
+    public List<String> verifyCompiledRuleBookWithPathIndex() {
+        return JsonValidator.verify(ruleBook, jsonNode, true);
+    }
+}
@@ -0,0 +1,193 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Generates one payload per row of overrides from a base document, and writes them as JSON Lines (NDJSON):
+ * one compact JSON document per line, in row order.
+ *
+ * <p>Every column header is a JSON node path, optionally followed by a {@link NodeType} as a type hint,
+ * e.g. {@code customer.age:Integer}. A header without a type hint updates the value as a string, like
+ * {@link JsonBuilder#update(String, Object)}. Each row is applied to the base document like a series
+ * of {@code update} calls, so {@code Skip} and {@code Ignore} values leave the base value unchanged,
+ * cells missing at the end of a short row are not applied, and a blank header ignores its column.
+ * Like a {@link JsonBuilder#fork()}, a payload copies only the containers on the paths of its row's changes and
+ * shares everything else with the base document, so the cost of a row does not depend on the size of the base.</p>
+ *
+ * <p>Rows are read on the calling thread and turned into payloads by a pool of workers in batches, encoded into
+ * pooled output buffers. Memory use does not depend on the number of rows. The workers are kept between calls of
+ * {@code generate} until the generator is closed.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * try (BulkPayloadGenerator generator = BulkPayloadGenerator.fromJsonFile(Path.of("base.json")).workers(8);
+ *      OutputStream out = Files.newOutputStream(Path.of("payloads.jsonl"))) {
+ *     long count = generator.generate(Path.of("overrides.csv"), out);
+ * }
+ * }</pre>
+ */
+public final class BulkPayloadGenerator implements AutoCloseable {
+
+    private final JsonNode base;
+    private final OrderedBatchPipeline pipeline = new OrderedBatchPipeline();
+    private final ThreadLocal<PathTrie> rowChanges = ThreadLocal.withInitial(PathTrie::new);
+    private final ThreadLocal<CopyOnWrite> rowTrees = ThreadLocal.withInitial(CopyOnWrite::new);
+
+    /**
+     * @param base the base document; it is copied, so later changes to it do not affect the generator
+     */
+    public BulkPayloadGenerator(JsonNode base) {
+        if (!base.isContainerNode()) {
+            throw new IllegalArgumentException("The base document must be a JSON object or array.");
+        }
+        this.base = base.deepCopy();
+    }
+
+    /**
+     * @param baseJsonFile the JSON file of the base document
+     * @return a generator for the base document
+     */
+    public static BulkPayloadGenerator fromJsonFile(Path baseJsonFile) {
+        return new BulkPayloadGenerator(JsonBuilder.readJsonNode(baseJsonFile, ReadMode.STANDARD));
+    }
+
+    /**
+     * @param workers the number of threads generating payloads, 1 to generate them on the calling thread;
+     *                defaults to the number of available processors
+     * @return this generator
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public BulkPayloadGenerator workers(int workers) {
+        pipeline.workers(workers);
+        return this;
+    }
+
+    /**
+     * @param batchSize the number of rows handed to a worker at once; defaults to 256
+     * @return this generator
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public BulkPayloadGenerator batchSize(int batchSize) {
+        pipeline.batchSize(batchSize);
+        return this;
+    }
+
+    /**
+     * @param executor the executor to generate the payloads on instead of the generator's own workers, or null to
+     *                 use its own workers; it is not shut down by the generator, and the number of
+     *                 {@linkplain #workers(int) workers} still limits the batches in flight
+     * @return this generator
+     */
+    public BulkPayloadGenerator executor(Executor executor) {
+        pipeline.executor(executor);
+        return this;
+    }
+
+    /**
+     * Stops the generator's own workers once their batches are generated. A later call of {@code generate}
+     * starts new workers.
+     */
+    @Override
+    public void close() {
+        pipeline.close();
+    }
+
+    /**
+     * Generates a payload for every row of the CSV file, whose first row holds the headers.
+     *
+     * @param csvFile      the UTF-8 encoded CSV file
+     * @param outputStream the stream to write the JSON Lines to; it is flushed but not closed
+     * @return the number of payloads written
+     */
+    @SneakyThrows
+    public long generate(Path csvFile, OutputStream outputStream) {
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            return generate(reader, outputStream);
+        }
+    }
+
+    /**
+     * Generates a payload for every row of the CSV document, whose first row holds the headers.
+     * The reader is read up to its end but not closed.
+     *
+     * @param csv          the CSV document
+     * @param outputStream the stream to write the JSON Lines to; it is flushed but not closed
+     * @return the number of payloads written
+     */
+    public long generate(Reader csv, OutputStream outputStream) {
+        CsvRowReader rows = new CsvRowReader(csv);
+        if (!rows.hasNext()) {
+            return 0;
+        }
+        return generate(rows.next(), rows, outputStream);
+    }
+
+    /**
+     * Generates a payload for every row.
+     *
+     * @param headers      the column headers, each a JSON node path with an optional {@code :NodeType} suffix
+     * @param rows         the rows of values, read one at a time
+     * @param outputStream the stream to write the JSON Lines to; it is flushed but not closed
+     * @return the number of payloads written
+     * @throws org.json.builder.exception.JsonBuilderException if a row cannot be applied;
+     *                                                         the payloads of the rows before its batch are already written
+     */
+    public long generate(List<String> headers, Iterator<? extends List<?>> rows, OutputStream outputStream) {
+        List<Column> columns = new ArrayList<>(headers.size());
+        for (String header : headers) {
+            columns.add(Column.parse(header));
+        }
+        OrderedBatchPipeline.RecordEncoder<List<?>> encoder = (row, buffer) -> {
+            JsonBuilder.writeJsonNode(apply(columns, row), buffer, false);
+            buffer.write('\n');
+        };
+        return pipeline.run(rows, encoder, outputStream);
+    }
+
+    private JsonNode apply(List<Column> columns, List<?> row) {
+        PathTrie changes = rowChanges.get();
+        changes.clear();
+        for (int i = 0; i < columns.size() && i < row.size(); i++) {
+            Column column = columns.get(i);
+            Object value = row.get(i);
+            if (column != null && JsonBuilder.isNotSkippable(value)) {
+                changes.update(column.path(), JsonBuilder.convertValueOfRequiredDataType(value, column.type()));
+            }
+        }
+        CopyOnWrite tree = rowTrees.get();
+        tree.share();
+        return changes.applyTo(base, tree);
+    }
+
+    /**
+     * A parsed column header.
+     */
+    private record Column(CompiledPath path, NodeType type) {
+
+        private static Column parse(String header) {
+            if (StringUtils.isBlank(header)) {
+                return null;
+            }
+            String path = header.trim();
+            NodeType type = NodeType.STRING;
+            int separator = path.lastIndexOf(':');
+            if (separator >= 0) {
+                type = NodeType.fromString(path.substring(separator + 1).trim());
+                path = path.substring(0, separator).trim();
+            }
+            return new Column(CompiledPath.of(path), type);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.core.JsonPointer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pre-tokenized JSON node path such as {@code order.items[0].price}.
+ * The dotted/bracket path is converted once into a {@link JsonPointer} and a list of segments,
+ * so repeated {@code update}, {@code remove} and {@code getNodeAt} calls skip the path parsing.
+ *
+ * <p>Paths obtained through {@link #of(String)} are kept in a bounded, thread-safe cache,
+ * so the same path string always resolves to the already compiled instance after warm-up.
+ * Once the cache is full, new paths are compiled on every call and not cached, so the paths cached first,
+ * usually the ones used over and over, stay cached until {@link #clearCache()} is called.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * CompiledPath city = CompiledPath.of("address.city");
+ * JsonObjectBuilder builder = new JsonObjectBuilder();
+ * builder.fromJsonString("{\"name\":\"John\"}")
+ *        .update(city, "New York")
+ *        .build();
+ * JsonNode node = builder.getNodeAt(city);
+ * }</pre>
+ */
+public final class CompiledPath {
+
+    static final int MAX_CACHED_PATHS = 4096;
+
+    private static final Map<String, CompiledPath> CACHE = new ConcurrentHashMap<>();
+    /** the number of cached paths plus the slots reserved by calls about to cache one */
+    private static final AtomicInteger CACHED = new AtomicInteger();
+
+    private final String path;
+    private final JsonPointer pointer;
+    private final List<Segment> segments;
+
+    private CompiledPath(String path, JsonPointer pointer, List<Segment> segments) {
+        this.path = path;
+        this.pointer = pointer;
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the compiled form of the given dotted/bracket path, compiling and caching it on first use.
+     *
+     * @param jsonNodePath the path of the JSON node, e.g. {@code address[0].city}
+     * @return the compiled path
+     */
+    public static CompiledPath of(String jsonNodePath) {
+        if (jsonNodePath == null) {
+            return compile(null);
+        }
+        CompiledPath compiledPath = CACHE.get(jsonNodePath);
+        if (compiledPath != null) {
+            return compiledPath;
+        }
+        compiledPath = compile(jsonNodePath);
+        if (CACHED.incrementAndGet() > MAX_CACHED_PATHS) {
+            // the cache is full: reserving a slot failed
+            CACHED.decrementAndGet();
+            return compiledPath;
+        }
+        CompiledPath cached = CACHE.putIfAbsent(jsonNodePath, compiledPath);
+        if (cached != null) {
+            CACHED.decrementAndGet();
+            return cached;
+        }
+        return compiledPath;
+    }
+
+    /**
+     * Compiles the given dotted/bracket path without consulting or populating the cache.
+     *
+     * @param jsonNodePath the path of the JSON node, e.g. {@code address[0].city}
+     * @return the compiled path
+     */
+    public static CompiledPath compile(String jsonNodePath) {
+        JsonPointer pointer = JsonPointer.compile(JsonBuilder.convertJsonNodePathWithSlashSeparator(jsonNodePath));
+        List<Segment> segments = new ArrayList<>();
+        for (JsonPointer current = pointer; !current.matches(); current = current.tail()) {
+            segments.add(new Segment(current.getMatchingProperty(), current.getMatchingIndex()));
+        }
+        return new CompiledPath(jsonNodePath, pointer, Collections.unmodifiableList(segments));
+    }
+
+    /**
+     * Removes every compiled path from the cache.
+     */
+    public static void clearCache() {
+        for (String jsonNodePath : CACHE.keySet()) {
+            if (CACHE.remove(jsonNodePath) != null) {
+                CACHED.decrementAndGet();
+            }
+        }
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    /**
+     * @return the original dotted/bracket path this instance was compiled from
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the equivalent JSON pointer, e.g. {@code /address/0/city}
+     */
+    public JsonPointer toPointer() {
+        return pointer;
+    }
+
+    /**
+     * @return the path segments from the root to the target node
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return true if this path points to the root node
+     */
+    public boolean isRoot() {
+        return segments.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompiledPath)) return false;
+        return pointer.equals(((CompiledPath) o).pointer);
+    }
+
+    @Override
+    public int hashCode() {
+        return pointer.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return pointer.toString();
+    }
+
+    /**
+     * A single step of a compiled path. A segment always carries the property name, and additionally
+     * an array index when the name is a valid index, so it can address both object fields and array elements
+     * in the same way a {@link JsonPointer} does.
+     *
+     * @param name  the property name of the segment
+     * @param index the array index of the segment, or -1 if the segment cannot address an array element
+     */
+    public record Segment(String name, int index) {
+
+        /**
+         * @return true if the segment can address an array element
+         */
+        public boolean isIndex() {
+            return index >= 0;
+        }
+    }
+}
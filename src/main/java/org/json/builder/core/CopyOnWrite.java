@@ -0,0 +1,81 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.json.builder.core.JsonBuilder.MAPPER;
+
+/**
+ * Tracks which containers of a builder's tree the builder may change in place once the tree is shared with a fork.
+ * While the tree is shared, a container is copied shallowly the first time it is changed and the copy replaces it
+ * in its parent, so only the containers on the paths of the changes are copied and all other subtrees stay shared,
+ * like in a persistent data structure. Containers copied or created since the last {@link #share()} belong to the
+ * builder and are changed in place.
+ */
+final class CopyOnWrite {
+
+    private final Set<JsonNode> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean shared;
+
+    /**
+     * Marks every node of the tree as shared, including the ones copied before.
+     */
+    void share() {
+        shared = true;
+        owned.clear();
+    }
+
+    /**
+     * Marks the tree as no longer shared, e.g. when the builder loads another document.
+     */
+    void release() {
+        shared = false;
+        owned.clear();
+    }
+
+    /**
+     * @param node a node of the tree that is about to be changed
+     * @return the node itself if the builder may change it, otherwise a shallow copy that the builder owns
+     */
+    @SuppressWarnings("unchecked")
+    <T extends JsonNode> T writable(T node) {
+        if (!shared || !node.isContainerNode() || owned.contains(node)) {
+            return node;
+        }
+        JsonNode copy = node.isObject()
+                ? MAPPER.createObjectNode().setAll((ObjectNode) node)
+                : MAPPER.createArrayNode().addAll((ArrayNode) node);
+        owned.add(copy);
+        return (T) copy;
+    }
+
+    /**
+     * Records a container created by the builder, so it is changed in place.
+     *
+     * @param node the created container
+     * @return the node
+     */
+    <T extends JsonNode> T created(T node) {
+        if (shared) {
+            owned.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Detaches the whole tree from its forks before it is changed by code that does not copy on write.
+     * The tree is still treated as shared afterwards: call {@link #release()} only once the detached tree has
+     * replaced the root, so a change that fails leaves the builder copying on write.
+     *
+     * @param root the root of the tree
+     * @return the root itself if the tree is not shared, otherwise a deep copy of it
+     */
+    <T extends JsonNode> T detach(T root) {
+        return shared ? root.deepCopy() : root;
+    }
+}
@@ -0,0 +1,96 @@
+package org.json.builder.core;
+
+import lombok.SneakyThrows;
+import org.json.builder.exception.JsonBuilderException;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the rows of a CSV document one at a time. Fields are separated by commas and may be enclosed in double
+ * quotes, in which case they can contain commas, line breaks and doubled quotes. Empty lines are skipped.
+ */
+final class CsvRowReader implements Iterator<List<String>> {
+
+    private final Reader reader;
+    private List<String> next;
+    private boolean finished;
+
+    CsvRowReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> row = next;
+        next = null;
+        return row;
+    }
+
+    @SneakyThrows
+    private List<String> readRow() {
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+                empty = false;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+                empty = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                if (!empty || field.length() > 0) {
+                    row.add(field.toString());
+                    return row;
+                }
+            } else {
+                field.append((char) c);
+                empty = false;
+            }
+        }
+        if (quoted) {
+            throw new JsonBuilderException("Unterminated quoted field in CSV row: " + row);
+        }
+        finished = true;
+        if (!empty || field.length() > 0) {
+            row.add(field.toString());
+            return row;
+        }
+        return null;
+    }
+}
@@ -3,28 +3,40 @@ package org.json.builder.core;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
 import org.json.builder.exception.JsonBuilderException;
 
 import java.io.File;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.function.Predicate;
 
 public class JsonArrayBuilder implements JsonBuilder {
 
-    private final Map<String, Object> jsonPathValueMapToAppend = new LinkedHashMap<>();
-    private final Map<String, Object> jsonPathValueMapToRemove = new LinkedHashMap<>();
+    private final PathTrie pendingChanges = new PathTrie();
+    private final CopyOnWrite copyOnWrite = new CopyOnWrite();
+    private volatile JsonSnapshot snapshot;
     private ArrayNode rootArrayNode = MAPPER.createArrayNode();
 
     @Override
     @SneakyThrows
     public synchronized JsonArrayBuilder fromJsonFile(String jsonFileName) {
         validateFileName(jsonFileName);
-        this.rootArrayNode = (ArrayNode) MAPPER.readTree(new File(jsonFileName));
+        this.rootArrayNode = readJsonFile(new File(jsonFileName), ArrayNode.class);
+        this.snapshot = null;
         return this;
     }
 
@@ -32,7 +44,8 @@ public class JsonArrayBuilder implements JsonBuilder {
     @SneakyThrows
     public synchronized JsonArrayBuilder fromJsonFile(File jsonFile) {
         validateFile(jsonFile);
-        this.rootArrayNode = (ArrayNode) MAPPER.readTree(jsonFile);
+        this.rootArrayNode = readJsonFile(jsonFile, ArrayNode.class);
+        this.snapshot = null;
         return this;
     }
 
@@ -41,6 +54,50 @@ public class JsonArrayBuilder implements JsonBuilder {
     public synchronized JsonArrayBuilder fromJsonString(String json) {
         validateJsonString(json);
         this.rootArrayNode = (ArrayNode) MAPPER.readTree(json);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    @Override
+    @SneakyThrows
+    public synchronized JsonArrayBuilder fromBytes(byte[] json, int offset, int length) {
+        validateBytes(json, length);
+        this.rootArrayNode = (ArrayNode) MAPPER.readTree(json, offset, length);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    @Override
+    @SneakyThrows
+    public synchronized JsonArrayBuilder fromInputStream(InputStream inputStream) {
+        validateInputStream(inputStream);
+        this.rootArrayNode = (ArrayNode) MAPPER.readTree(inputStream);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder fromByteBuffer(ByteBuffer buffer) {
+        validateByteBuffer(buffer);
+        this.rootArrayNode = (ArrayNode) JsonBuilder.readJsonNode(buffer);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder fromPath(Path jsonFile) {
+        return fromPath(jsonFile, ReadMode.STANDARD);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder fromPath(Path jsonFile, ReadMode readMode) {
+        this.rootArrayNode = (ArrayNode) JsonBuilder.readJsonNode(jsonFile, readMode);
+        this.snapshot = null;
+        this.copyOnWrite.release();
         return this;
     }
 
@@ -48,13 +105,20 @@ public class JsonArrayBuilder implements JsonBuilder {
     @SneakyThrows
     public synchronized JsonArrayBuilder fromEmptyNode() {
         this.rootArrayNode = MAPPER.createArrayNode();
+        this.snapshot = null;
+        this.copyOnWrite.release();
         return this;
     }
 
     @Override
     public synchronized JsonArrayBuilder update(String jsonNodePath, Object value, NodeType dataTypeOfValue) {
+        return update(CompiledPath.of(jsonNodePath), value, dataTypeOfValue);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder update(CompiledPath jsonNodePath, Object value, NodeType dataTypeOfValue) {
         if (JsonBuilder.isNotSkippable(value)) {
-            jsonPathValueMapToAppend.put(convertPath(jsonNodePath), JsonBuilder.convertValueOfRequiredDataType(value, dataTypeOfValue));
+            pendingChanges.update(jsonNodePath, JsonBuilder.convertValueOfRequiredDataType(value, dataTypeOfValue));
         }
         return this;
     }
@@ -64,6 +128,62 @@ public class JsonArrayBuilder implements JsonBuilder {
         return update(jsonNodePath, value, NodeType.STRING);
     }
 
+    @Override
+    public synchronized JsonArrayBuilder update(CompiledPath jsonNodePath, Object value) {
+        return update(jsonNodePath, value, NodeType.STRING);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateLong(String jsonNodePath, long value) {
+        return updateLong(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateDouble(String jsonNodePath, double value) {
+        return updateDouble(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateBoolean(String jsonNodePath, boolean value) {
+        return updateBoolean(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateDecimal(String jsonNodePath, BigDecimal value) {
+        return updateDecimal(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateNode(String jsonNodePath, JsonNode value) {
+        return updateNode(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateLong(CompiledPath jsonNodePath, long value) {
+        return updateNode(jsonNodePath, LongNode.valueOf(value));
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateDouble(CompiledPath jsonNodePath, double value) {
+        return updateNode(jsonNodePath, JsonBuilder.doubleNode(value));
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateBoolean(CompiledPath jsonNodePath, boolean value) {
+        return updateNode(jsonNodePath, BooleanNode.valueOf(value));
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateDecimal(CompiledPath jsonNodePath, BigDecimal value) {
+        return updateNode(jsonNodePath, value == null ? NullNode.getInstance() : DecimalNode.valueOf(value));
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder updateNode(CompiledPath jsonNodePath, JsonNode value) {
+        pendingChanges.update(jsonNodePath, value == null ? NullNode.getInstance() : value.deepCopy());
+        return this;
+    }
+
     @Override
     public synchronized JsonArrayBuilder updateArrayNodeIf(Predicate<JsonNode> condition, String arrayNodePath, String key, String newValue) {
         updateNodeIf(condition, arrayNodePath, key, newValue);
@@ -72,16 +192,34 @@ public class JsonArrayBuilder implements JsonBuilder {
 
     @Override
     public synchronized JsonArrayBuilder remove(String jsonNodePath) {
-        jsonPathValueMapToRemove.put(convertPath(jsonNodePath), "");
+        return remove(CompiledPath.of(jsonNodePath));
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder remove(CompiledPath jsonNodePath) {
+        pendingChanges.remove(jsonNodePath);
         return this;
     }
 
     @Override
     public synchronized JsonArrayBuilder build() {
-        jsonPathValueMapToAppend.forEach((key, value) -> setJsonPointerValueInJsonArray(rootArrayNode, JsonPointer.compile(key), (JsonNode) value));
-        jsonPathValueMapToAppend.clear();
-        jsonPathValueMapToRemove.forEach((key, value) -> removeJsonPointerValueInJsonArray(rootArrayNode, JsonPointer.compile(key)));
-        jsonPathValueMapToRemove.clear();
+        rootArrayNode = (ArrayNode) pendingChanges.applyTo(rootArrayNode, copyOnWrite);
+        pendingChanges.clear();
+        snapshot = null;
+        return this;
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder applyPatch(JsonNode patch) {
+        build();
+        setPatchedRoot(JsonPatches.applyPatch(copyOnWrite.detach(rootArrayNode), patch));
+        return this;
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder applyMergePatch(JsonNode mergePatch) {
+        build();
+        setPatchedRoot(JsonPatches.applyMergePatch(copyOnWrite.detach(rootArrayNode), mergePatch));
         return this;
     }
 
@@ -98,25 +236,87 @@ public class JsonArrayBuilder implements JsonBuilder {
         return rootArrayNode;
     }
 
+    @Override
+    public JsonSnapshot snapshot() {
+        JsonSnapshot current = snapshot;
+        return current != null ? current : publishSnapshot();
+    }
+
+    private synchronized JsonSnapshot publishSnapshot() {
+        if (snapshot == null) {
+            snapshot = new JsonSnapshot(rootArrayNode.deepCopy());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder fork() {
+        build();
+        copyOnWrite.share();
+        JsonArrayBuilder fork = new JsonArrayBuilder();
+        fork.rootArrayNode = rootArrayNode;
+        fork.copyOnWrite.share();
+        fork.snapshot = snapshot;
+        return fork;
+    }
+
     @Override
     public synchronized JsonNode getNodeAt(String jsonNodePath) {
         return rootArrayNode.at(convertPath(jsonNodePath));
     }
 
+    @Override
+    public synchronized JsonNode getNodeAt(CompiledPath jsonNodePath) {
+        return rootArrayNode.at(jsonNodePath.toPointer());
+    }
+
     @Override
     public synchronized void clean() {
+        rootArrayNode = copyOnWrite.writable(rootArrayNode);
         rootArrayNode.removeAll();
-        jsonPathValueMapToAppend.clear();
-        jsonPathValueMapToRemove.clear();
+        pendingChanges.clear();
+        snapshot = null;
     }
 
-    @SneakyThrows
     @Override
     public synchronized JsonArrayBuilder writeTo(String filePath) {
-        Files.writeString(Paths.get(filePath), toPrettyString());
+        return writeTo(Paths.get(filePath));
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder writeTo(Path filePath) {
+        return writeTo(filePath, true);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder writeTo(Path filePath, boolean pretty) {
+        build();
+        JsonBuilder.writeJsonNode(rootArrayNode, filePath, pretty);
         return this;
     }
 
+    @Override
+    public synchronized JsonArrayBuilder writeTo(OutputStream outputStream) {
+        return writeTo(outputStream, true);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder writeTo(OutputStream outputStream, boolean pretty) {
+        build();
+        JsonBuilder.writeJsonNode(rootArrayNode, outputStream, pretty);
+        return this;
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder writeTo(WritableByteChannel channel) {
+        return writeTo(channel, true);
+    }
+
+    @Override
+    public synchronized JsonArrayBuilder writeTo(WritableByteChannel channel, boolean pretty) {
+        return writeTo(Channels.newOutputStream(channel), pretty);
+    }
+
     @Override
     public synchronized boolean isBuilderEmpty() {
         return rootArrayNode.isNull() || rootArrayNode.isEmpty() || rootArrayNode.isMissingNode();
@@ -146,48 +346,6 @@ public class JsonArrayBuilder implements JsonBuilder {
         return JsonBuilder.collectJsonPathKeyValuePairs(rootArrayNode, StringUtils.EMPTY, new LinkedHashMap<>());
     }
 
-    private void setJsonPointerValueInJsonArray(ArrayNode node, JsonPointer pointer, JsonNode value) {
-        JsonPointer parentPointer = pointer.head();
-        JsonNode parentNode = node.at(parentPointer);
-        String fieldName = pointer.last().toString().substring(1);
-
-        if (parentNode.isMissingNode() || parentNode.isNull()) {
-            parentNode = StringUtils.isNumeric(fieldName) ? MAPPER.createArrayNode() : MAPPER.createObjectNode();
-            setJsonPointerValueInJsonArray(node, parentPointer, parentNode);
-        }
-
-        if (parentNode.isArray()) {
-            ArrayNode arrayNode = (ArrayNode) parentNode;
-            int index = Integer.parseInt(fieldName);
-            for (int i = arrayNode.size(); i <= index; i++) {
-                arrayNode.addObject();
-            }
-            arrayNode.set(index, value);
-        } else if (parentNode.isObject()) {
-            ((ObjectNode) parentNode).set(fieldName, value);
-        } else {
-            throw new IllegalArgumentException("Invalid parent node type for field: " + fieldName);
-        }
-    }
-
-    private void removeJsonPointerValueInJsonArray(ArrayNode node, JsonPointer pointer) {
-        JsonPointer parentPointer = pointer.head();
-        JsonNode parentNode = node.at(parentPointer);
-        String fieldName = pointer.last().toString().substring(1);
-
-        if (parentNode.isMissingNode() || parentNode.isNull()) {
-            return;
-        }
-
-        if (parentNode.isArray()) {
-            ((ArrayNode) parentNode).remove(Integer.parseInt(fieldName));
-        } else if (parentNode.isObject()) {
-            ((ObjectNode) parentNode).remove(fieldName);
-        } else {
-            throw new IllegalArgumentException("Invalid parent node type for field: " + fieldName);
-        }
-    }
-
     private void updateNodeIf(Predicate<JsonNode> condition, String nodePath, String targetNodePath, String newValue) {
         JsonNode node = getNodeAt(nodePath);
         if (node.isArray()) {
@@ -205,6 +363,18 @@ public class JsonArrayBuilder implements JsonBuilder {
         }
     }
 
+    private <T extends JsonNode> T readJsonFile(File jsonFile, Class<T> rootType) throws IOException {
+        TemplateCache templateCache = TemplateCache.installed();
+        T root = rootType.cast(templateCache == null ? MAPPER.readTree(jsonFile) : templateCache.load(jsonFile));
+        // the state changes only once the file is read, so a bad file leaves the current tree protected
+        if (templateCache != null && templateCache.sharesTrees()) {
+            copyOnWrite.share();
+        } else {
+            copyOnWrite.release();
+        }
+        return root;
+    }
+
     private void validateFileName(String fileName) {
         if (fileName.isBlank()) {
             throw new JsonBuilderException("File name is blank.");
@@ -223,13 +393,41 @@ public class JsonArrayBuilder implements JsonBuilder {
         }
     }
 
+    private void validateBytes(byte[] json, int length) {
+        if (Objects.isNull(json) || length <= 0) {
+            throw new JsonBuilderException("Invalid JSON bytes.");
+        }
+    }
+
+    private void validateInputStream(InputStream inputStream) {
+        if (Objects.isNull(inputStream)) {
+            throw new JsonBuilderException("Invalid JSON stream.");
+        }
+    }
+
+    private void validateByteBuffer(ByteBuffer buffer) {
+        if (Objects.isNull(buffer) || !buffer.hasRemaining()) {
+            throw new JsonBuilderException("Invalid JSON buffer.");
+        }
+    }
+
+    private void setPatchedRoot(JsonNode patchedRoot) {
+        if (!patchedRoot.isArray()) {
+            throw new JsonBuilderException("Root node is not a JSON array.");
+        }
+        this.rootArrayNode = (ArrayNode) patchedRoot;
+        this.snapshot = null;
+        // the patched root is detached from the forks
+        this.copyOnWrite.release();
+    }
+
     private void validateRootNode() {
         if (Objects.isNull(rootArrayNode)) {
             throw new JsonBuilderException("Root node is null.");
         }
     }
 
-    private String convertPath(String jsonNodePath) {
-        return JsonBuilder.convertJsonNodePathWithSlashSeparator(jsonNodePath);
+    private JsonPointer convertPath(String jsonNodePath) {
+        return CompiledPath.of(jsonNodePath).toPointer();
     }
 }
\ No newline at end of file
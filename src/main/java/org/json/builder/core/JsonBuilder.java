@@ -3,18 +3,34 @@
  */
 package org.json.builder.core;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.*;
-import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
+import org.json.builder.exception.JsonBuilderException;
+import org.json.builder.internal.SubtreeHasher;
 
 import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author rajkumarrajamani
@@ -31,34 +47,96 @@ public interface JsonBuilder {
         return new JsonArrayBuilder();
     }
 
+    static JsonBuilder lazyObjectBuilder() {
+        return new LazyJsonObjectBuilder();
+    }
+
     JsonBuilder fromJsonFile(String jsonFileName);
 
     JsonBuilder fromJsonFile(File jsonFile);
 
     JsonBuilder fromJsonString(String json);
 
+    JsonBuilder fromBytes(byte[] json, int offset, int length);
+
+    JsonBuilder fromInputStream(InputStream inputStream);
+
+    JsonBuilder fromByteBuffer(ByteBuffer buffer);
+
+    JsonBuilder fromPath(Path jsonFile);
+
+    JsonBuilder fromPath(Path jsonFile, ReadMode readMode);
+
     JsonBuilder fromEmptyNode();
 
     JsonBuilder update(String jsonNodePath, Object value, NodeType dataTypeOfValue);
 
     JsonBuilder update(String jsonNodePath, Object value);
 
+    JsonBuilder update(CompiledPath jsonNodePath, Object value, NodeType dataTypeOfValue);
+
+    JsonBuilder update(CompiledPath jsonNodePath, Object value);
+
+    JsonBuilder updateLong(String jsonNodePath, long value);
+
+    JsonBuilder updateDouble(String jsonNodePath, double value);
+
+    JsonBuilder updateBoolean(String jsonNodePath, boolean value);
+
+    JsonBuilder updateDecimal(String jsonNodePath, BigDecimal value);
+
+    JsonBuilder updateNode(String jsonNodePath, JsonNode value);
+
+    JsonBuilder updateLong(CompiledPath jsonNodePath, long value);
+
+    JsonBuilder updateDouble(CompiledPath jsonNodePath, double value);
+
+    JsonBuilder updateBoolean(CompiledPath jsonNodePath, boolean value);
+
+    JsonBuilder updateDecimal(CompiledPath jsonNodePath, BigDecimal value);
+
+    JsonBuilder updateNode(CompiledPath jsonNodePath, JsonNode value);
+
     JsonBuilder updateArrayNodeIf(Predicate<JsonNode> condition, String arrayNodePath, String key, String newValue);
 
     JsonBuilder remove(String jsonNodePath);
 
+    JsonBuilder remove(CompiledPath jsonNodePath);
+
     JsonBuilder build();
 
+    JsonBuilder applyPatch(JsonNode patch);
+
+    JsonBuilder applyMergePatch(JsonNode mergePatch);
+
     String toPrettyString();
 
     JsonNode buildAsJsonNode();
 
+    JsonSnapshot snapshot();
+
+    JsonBuilder fork();
+
     JsonNode getNodeAt(String jsonNodePath);
 
+    JsonNode getNodeAt(CompiledPath jsonNodePath);
+
     void clean();
 
     JsonBuilder writeTo(String filePath);
 
+    JsonBuilder writeTo(Path filePath);
+
+    JsonBuilder writeTo(Path filePath, boolean pretty);
+
+    JsonBuilder writeTo(OutputStream outputStream);
+
+    JsonBuilder writeTo(OutputStream outputStream, boolean pretty);
+
+    JsonBuilder writeTo(WritableByteChannel channel);
+
+    JsonBuilder writeTo(WritableByteChannel channel, boolean pretty);
+
     boolean isBuilderEmpty();
 
     <T> T transformToPojo(Class<?> classType);
@@ -70,13 +148,12 @@ public interface JsonBuilder {
     Map<String, String> extractJsonPathValueMap();
 
     static JsonNode getNodeAt(JsonNode node, String jsonNodePath) {
-        String jsonPath = JsonBuilder.convertJsonNodePathWithSlashSeparator(jsonNodePath);
-        return node.at(jsonPath);
+        return node.at(CompiledPath.of(jsonNodePath).toPointer());
     }
 
     static String getValueAtNodeAsText(JsonNode node, String jsonNodePath) {
-        String jsonPath = JsonBuilder.convertJsonNodePathWithSlashSeparator(jsonNodePath);
-        return node.at(jsonPath).isMissingNode() ? "null" : node.at(jsonPath).asText();
+        JsonNode valueNode = getNodeAt(node, jsonNodePath);
+        return valueNode.isMissingNode() ? "null" : valueNode.asText();
     }
 
     static String extractPojoToPretryJsonString(Object object) {
@@ -87,9 +164,226 @@ public interface JsonBuilder {
         return generateString(object, false);
     }
 
+    @SneakyThrows
     private static String generateString(Object object, boolean pretty) {
-        if (pretty) return MAPPER.valueToTree(object).toPrettyString();
-        else return MAPPER.valueToTree(object).toString();
+        if (pretty) return JsonCodecs.prettyWriter().writeValueAsString(object);
+        else return JsonCodecs.writer().writeValueAsString(object);
+    }
+
+    /**
+     * Walks the given node depth-first and reports the JSON paths {@link #extractJsonPaths()} would return,
+     * in the same order, to the visitor. All paths are written into one reusable buffer, so paths the visitor
+     * does not keep cost no allocation. The visitor can skip nested objects and arrays.
+     *
+     * @param node    the node to walk
+     * @param visitor the visitor to report the paths to
+     */
+    static void visitJsonPaths(JsonNode node, JsonPathVisitor visitor) {
+        JsonPathWalker.walk(node, StringUtils.EMPTY, visitor);
+    }
+
+    /**
+     * Streams the JSON paths of a file in the format of {@link #extractJsonPaths()}, without building a tree.
+     * The paths are read lazily while the stream is consumed, so memory use depends only on the nesting depth
+     * of the document. The stream must be closed to release the file, e.g. with try-with-resources.
+     *
+     * @param jsonFile the JSON file to read
+     * @return the stream of JSON paths in document order
+     */
+    @SneakyThrows
+    static Stream<String> streamJsonPaths(Path jsonFile) {
+        JsonPathStreamer streamer = new JsonPathStreamer(MAPPER.getFactory().createParser(jsonFile.toFile()));
+        return streamOf(streamer, JsonPathStreamer::currentPath);
+    }
+
+    /**
+     * Streams the JSON paths of a file with their values, in the format of {@link #extractJsonPathValueMap()},
+     * without building a tree. The entries are read lazily while the stream is consumed.
+     * The stream must be closed to release the file, e.g. with try-with-resources.
+     *
+     * @param jsonFile the JSON file to read
+     * @return the stream of path and value entries in document order
+     */
+    @SneakyThrows
+    static Stream<Map.Entry<String, String>> streamJsonPathValues(Path jsonFile) {
+        JsonPathStreamer streamer = new JsonPathStreamer(MAPPER.getFactory().createParser(jsonFile.toFile()));
+        return streamOf(streamer, current -> Map.entry(current.currentPath(), current.currentValue()));
+    }
+
+    /**
+     * Passes every JSON path of a file to the consumer, in the format of {@link #extractJsonPaths()},
+     * without building a tree.
+     *
+     * @param jsonFile the JSON file to read
+     * @param consumer the consumer of the paths, called in document order
+     */
+    @SneakyThrows
+    static void streamJsonPaths(Path jsonFile, Consumer<String> consumer) {
+        try (JsonPathStreamer streamer = new JsonPathStreamer(MAPPER.getFactory().createParser(jsonFile.toFile()))) {
+            while (streamer.advance()) consumer.accept(streamer.currentPath());
+        }
+    }
+
+    /**
+     * Passes every JSON path of a file with its value to the consumer, in the format of
+     * {@link #extractJsonPathValueMap()}, without building a tree.
+     *
+     * @param jsonFile the JSON file to read
+     * @param consumer the consumer of the paths and values, called in document order
+     */
+    @SneakyThrows
+    static void streamJsonPathValues(Path jsonFile, BiConsumer<String, String> consumer) {
+        try (JsonPathStreamer streamer = new JsonPathStreamer(MAPPER.getFactory().createParser(jsonFile.toFile()))) {
+            while (streamer.advance()) consumer.accept(streamer.currentPath(), streamer.currentValue());
+        }
+    }
+
+    private static <T> Stream<T> streamOf(JsonPathStreamer streamer, Function<JsonPathStreamer, T> mapper) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!streamer.advance()) {
+                    return false;
+                }
+                action.accept(mapper.apply(streamer));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(streamer::close);
+    }
+
+    /**
+     * Binds the JSON file straight to a POJO, streaming the file without building a {@link JsonNode} tree.
+     *
+     * @param jsonFile the JSON file to read
+     * @param type     the class of the POJO
+     * @return the POJO
+     */
+    @SneakyThrows
+    static <T> T readPojo(Path jsonFile, Class<T> type) {
+        return JsonCodecs.readerFor(type).readValue(jsonFile.toFile());
+    }
+
+    /**
+     * Binds the UTF-8 encoded JSON bytes straight to a POJO, without building a {@link JsonNode} tree.
+     *
+     * @param json the JSON bytes
+     * @param type the class of the POJO
+     * @return the POJO
+     */
+    @SneakyThrows
+    static <T> T readPojo(byte[] json, Class<T> type) {
+        return JsonCodecs.readerFor(type).readValue(json);
+    }
+
+    /**
+     * Binds the JSON stream straight to a POJO, without building a {@link JsonNode} tree. The stream is closed.
+     *
+     * @param inputStream the JSON stream
+     * @param type        the class of the POJO
+     * @return the POJO
+     */
+    @SneakyThrows
+    static <T> T readPojo(InputStream inputStream, Class<T> type) {
+        try (inputStream) {
+            return JsonCodecs.readerFor(type).readValue(inputStream);
+        }
+    }
+
+    /**
+     * Serializes the POJO straight to the stream as compact UTF-8 JSON, without building a {@link JsonNode} tree.
+     * The stream is flushed but not closed.
+     *
+     * @param object       the POJO to write
+     * @param outputStream the stream to write to
+     */
+    static void writePojo(Object object, OutputStream outputStream) {
+        writePojo(object, outputStream, false);
+    }
+
+    /**
+     * Serializes the POJO straight to the stream as UTF-8 JSON, without building a {@link JsonNode} tree.
+     * The stream is flushed but not closed.
+     *
+     * @param object       the POJO to write
+     * @param outputStream the stream to write to
+     * @param pretty       true to pretty-print the JSON, false to write it compactly
+     */
+    @SneakyThrows
+    static void writePojo(Object object, OutputStream outputStream, boolean pretty) {
+        (pretty ? JsonCodecs.prettyWriter() : JsonCodecs.writer()).writeValue(outputStream, object);
+    }
+
+    /**
+     * Parses the remaining bytes of the given buffer, without changing its position.
+     * Heap buffers are parsed from their backing array in place, direct and mapped buffers through a stream view.
+     *
+     * @param buffer the buffer holding the UTF-8 encoded JSON
+     * @return the parsed node
+     */
+    @SneakyThrows
+    static JsonNode readJsonNode(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return MAPPER.readTree(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return MAPPER.readTree(new ByteBufferBackedInputStream(buffer.duplicate()));
+    }
+
+    /**
+     * Parses the given JSON file in the given read mode.
+     *
+     * @param jsonFile the JSON file
+     * @param readMode {@link ReadMode#MMAP} to parse a memory-mapped region of the file, {@link ReadMode#STANDARD} to stream it
+     * @return the parsed node
+     * @throws JsonBuilderException if the file does not exist or is too large to be mapped
+     */
+    @SneakyThrows
+    static JsonNode readJsonNode(Path jsonFile, ReadMode readMode) {
+        if (!Files.isRegularFile(jsonFile)) {
+            throw new JsonBuilderException("Invalid file.");
+        }
+        if (readMode == ReadMode.MMAP) {
+            try (FileChannel channel = FileChannel.open(jsonFile, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new JsonBuilderException("File is too large to be memory-mapped: " + jsonFile);
+                }
+                return readJsonNode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        try (InputStream inputStream = Files.newInputStream(jsonFile)) {
+            return MAPPER.readTree(inputStream);
+        }
+    }
+
+    /**
+     * Serializes the given node straight into the output stream through a Jackson generator,
+     * without creating an intermediate String. The stream is flushed but not closed.
+     *
+     * @param node         the node to serialize
+     * @param outputStream the stream to write the UTF-8 encoded JSON to
+     * @param pretty       true to pretty-print the JSON, false to write it compactly
+     */
+    @SneakyThrows
+    static void writeJsonNode(JsonNode node, OutputStream outputStream, boolean pretty) {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (pretty) generator.useDefaultPrettyPrinter();
+            MAPPER.writeTree(generator, node);
+        }
+    }
+
+    /**
+     * Serializes the given node straight into a file, replacing its content.
+     *
+     * @param node     the node to serialize
+     * @param filePath the file to write the UTF-8 encoded JSON to
+     * @param pretty   true to pretty-print the JSON, false to write it compactly
+     */
+    @SneakyThrows
+    static void writeJsonNode(JsonNode node, Path filePath, boolean pretty) {
+        try (OutputStream outputStream = Files.newOutputStream(filePath)) {
+            writeJsonNode(node, outputStream, pretty);
+        }
     }
 
     static JsonNode transformPojoToJsonNode(Object object) {
@@ -103,14 +397,12 @@ public interface JsonBuilder {
 
     @SneakyThrows
     static <T> T transformJsonToPojoObject(String json, Class<T> type) {
-        MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return MAPPER.readValue(json, type);
+        return JsonCodecs.readerFor(type).readValue(json);
     }
 
     @SneakyThrows
     static <T> List<T> transformJsonToPojoLst(String json, Class<T> type) {
-        MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return MAPPER.readValue(json, TypeFactory.defaultInstance().constructCollectionType(List.class, type));
+        return JsonCodecs.listReaderFor(type).readValue(json);
     }
 
     static String convertJsonNodePathWithSlashSeparator(String jsonPath) {
@@ -126,134 +418,139 @@ public interface JsonBuilder {
     }
 
     static boolean isNotSkippable(Object value) {
-        if (Objects.nonNull(value)) {
-            String stringValue = String.valueOf(value);
+        // only text and constants can spell a skip marker, so other values are not turned into strings
+        if (value instanceof CharSequence || value instanceof Enum<?>) {
+            String stringValue = value.toString();
             return !stringValue.equalsIgnoreCase(NodeType.SKIP.getType()) && !stringValue.equalsIgnoreCase(NodeType.IGNORE.getType());
         }
         return true;
     }
 
+    static JsonNode doubleNode(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Invalid JSON number: " + value);
+        }
+        return DoubleNode.valueOf(value);
+    }
+
     static String getJsonPath(JsonNode rootNode, JsonNode subNode) {
+        SubtreeHasher hasher = new SubtreeHasher();
         StringBuilder jsonPath = new StringBuilder();
-        if (findJsonPath(rootNode, subNode, jsonPath, "")) {
+        if (findJsonPath(rootNode, subNode, hasher.hash(subNode), hasher, jsonPath)) {
             return jsonPath.toString();
         }
         return null; // Return null if subNode is not found in rootNode
     }
 
-    private static boolean findJsonPath(JsonNode currentNode, JsonNode targetNode, StringBuilder jsonPath, String currentPath) {
-        if (currentNode.equals(targetNode)) {
-            jsonPath.append(currentPath);
+    /**
+     * Walks the document in pre-order and stops at the first node equal to the target. Nodes of another type or size
+     * are skipped without hashing them, and the cached subtree hash is compared before {@code equals}, so each subtree
+     * is hashed at most once and compared in full only when its hash matches.
+     */
+    private static boolean findJsonPath(JsonNode currentNode, JsonNode targetNode, long targetHash, SubtreeHasher hasher, StringBuilder jsonPath) {
+        if (currentNode.getNodeType() == targetNode.getNodeType() && currentNode.size() == targetNode.size()
+                && (currentNode == targetNode || hasher.hash(currentNode) == targetHash && currentNode.equals(targetNode))) {
             return true;
         }
 
+        int length = jsonPath.length();
         if (currentNode.isObject()) {
-            for (var entry : iterable(currentNode.fields())) {
-                String newPath = currentPath.isEmpty() ? entry.getKey() : currentPath + "." + entry.getKey();
-                if (findJsonPath(entry.getValue(), targetNode, jsonPath, newPath)) {
+            Iterator<Map.Entry<String, JsonNode>> fields = currentNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (length > 0) {
+                    jsonPath.append('.');
+                }
+                jsonPath.append(field.getKey());
+                if (findJsonPath(field.getValue(), targetNode, targetHash, hasher, jsonPath)) {
                     return true;
                 }
+                jsonPath.setLength(length);
             }
         } else if (currentNode.isArray()) {
             for (int i = 0; i < currentNode.size(); i++) {
-                String newPath = currentPath + "[" + i + "]";
-                if (findJsonPath(currentNode.get(i), targetNode, jsonPath, newPath)) {
+                jsonPath.append('[').append(i).append(']');
+                if (findJsonPath(currentNode.get(i), targetNode, targetHash, hasher, jsonPath)) {
                     return true;
                 }
+                jsonPath.setLength(length);
             }
         }
 
         return false;
     }
 
-    private static <T> Iterable<T> iterable(Iterator<T> iterator) {
-        return () -> iterator;
-    }
-
     static List<String> collectJsonPaths(JsonNode node, String parentPath, List<String> paths) {
-        if (node.isObject()) {
-            node.fields().forEachRemaining(entry -> {
-                String currentPath = parentPath.isEmpty() ? entry.getKey() : parentPath + "." + entry.getKey();
-                JsonNode childNode = entry.getValue();
-                if (childNode.isArray()) {
-                    for (int i = 0; i < childNode.size(); i++) {
-                        JsonNode arrayElement = childNode.get(i);
-                        if (arrayElement.isTextual()) {
-                            paths.add(currentPath + "[" + i + "]");
-                        } else {
-                            collectJsonPaths(arrayElement, currentPath + "[" + i + "]", paths);
-                        }
-                    }
-                } else if (childNode.isObject()) {
-                    collectJsonPaths(childNode, currentPath, paths);
-                } else {
-                    paths.add(currentPath);
-                }
-            });
-        } else if (node.isArray()) {
-            for (int i = 0; i < node.size(); i++) {
-                JsonNode arrayElement = node.get(i);
-                if (arrayElement.isTextual()) {
-                    paths.add(parentPath + "[" + i + "]");
-                } else {
-                    collectJsonPaths(arrayElement, parentPath + "[" + i + "]", paths);
-                }
-            }
-        }
+        JsonPathWalker.walk(node, parentPath, (path, leaf) -> paths.add(path.toString()));
         return paths;
     }
 
     static Map<String, String> collectJsonPathKeyValuePairs(JsonNode node, String parentPath, LinkedHashMap<String, String> pathKeyValueMap) {
-        if (node.isObject()) {
-            node.fields().forEachRemaining(entry -> {
-                String currentPath = parentPath.isEmpty() ? entry.getKey() : parentPath + "." + entry.getKey();
-                JsonNode childNode = entry.getValue();
-                if (childNode.isArray()) {
-                    for (int i = 0; i < childNode.size(); i++) {
-                        JsonNode arrayElement = childNode.get(i);
-                        if (arrayElement.isTextual()) {
-                            pathKeyValueMap.put(currentPath + "[" + i + "]", arrayElement.asText());
-                        } else {
-                            collectJsonPathKeyValuePairs(arrayElement, currentPath + "[" + i + "]", pathKeyValueMap);
-                        }
-                    }
-                } else if (childNode.isObject()) {
-                    collectJsonPathKeyValuePairs(childNode, currentPath, pathKeyValueMap);
-                } else {
-                    pathKeyValueMap.put(currentPath, childNode.asText());
-                }
-            });
-        } else if (node.isArray()) {
-            for (int i = 0; i < node.size(); i++) {
-                JsonNode arrayElement = node.get(i);
-                if (arrayElement.isTextual()) {
-                    pathKeyValueMap.put(parentPath + "[" + i + "]", arrayElement.asText());
-                } else {
-                    collectJsonPathKeyValuePairs(arrayElement, parentPath + "[" + i + "]", pathKeyValueMap);
-                }
-            }
-        }
+        JsonPathWalker.walk(node, parentPath, (path, leaf) -> pathKeyValueMap.put(path.toString(), leaf.asText()));
         return pathKeyValueMap;
     }
 
     static JsonNode convertValueOfRequiredDataType(Object value, NodeType valueType) {
         if (value == null) return NullNode.getInstance();
 
-        String stringValue = Objects.toString(value, "");
-
         return switch (valueType) {
-            case INT, LONG, NUMBER, INTEGER -> new LongNode((long) Double.parseDouble(stringValue));
-            case DOUBLE, DECIMAL, FLOAT -> new DecimalNode(new BigDecimal(stringValue));
-            case BOOLEAN -> BooleanNode.valueOf(Boolean.parseBoolean(stringValue));
+            case INT, LONG, NUMBER, INTEGER -> LongNode.valueOf(toLong(value));
+            case DOUBLE, DECIMAL, FLOAT -> DecimalNode.valueOf(toBigDecimal(value));
+            case BOOLEAN -> BooleanNode.valueOf(value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString()));
             case EMPTY, BLANK -> new TextNode("");
             case NULL -> NullNode.getInstance();
             case EMPTYOBJECT -> MAPPER.createObjectNode();
             case EMPTYARRAY -> MAPPER.createArrayNode();
-            case OBJECTNODE ->
-                    stringValue.isBlank() ? MAPPER.createObjectNode() : JsonBuilder.objectBuilder().fromJsonString(stringValue).buildAsJsonNode();
-            case ARRAYNODE ->
-                    stringValue.isBlank() ? MAPPER.createArrayNode() : JsonBuilder.arrayBuilder().fromJsonString(stringValue).buildAsJsonNode();
-            default -> new TextNode(stringValue);
+            case OBJECTNODE -> value instanceof ObjectNode objectNode ? objectNode.deepCopy()
+                    : value.toString().isBlank() ? MAPPER.createObjectNode() : JsonBuilder.objectBuilder().fromJsonString(value.toString()).buildAsJsonNode();
+            case ARRAYNODE -> value instanceof ArrayNode arrayNode ? arrayNode.deepCopy()
+                    : value.toString().isBlank() ? MAPPER.createArrayNode() : JsonBuilder.arrayBuilder().fromJsonString(value.toString()).buildAsJsonNode();
+            default -> new TextNode(value.toString());
         };
     }
+
+    /**
+     * Converts a value to a long without going through a double when it is an integer,
+     * so integers above 2^53 keep their precision. Other numbers are truncated.
+     */
+    private static long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        String stringValue = value.toString();
+        if (isIntegerLiteral(stringValue)) {
+            try {
+                return Long.parseLong(stringValue);
+            } catch (NumberFormatException e) {
+                // out of the range of a long; saturated by the conversion below
+            }
+        }
+        return (long) Double.parseDouble(stringValue);
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof Double number) {
+            return BigDecimal.valueOf(number);
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    private static boolean isIntegerLiteral(String value) {
+        int start = !value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (start == value.length()) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 }
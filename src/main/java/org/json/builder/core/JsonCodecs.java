@@ -0,0 +1,131 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-configured, immutable {@link ObjectReader}s and {@link ObjectWriter}s used to bind JSON to POJOs and back.
+ * A reader is created once per target type and then shared, so binding never reconfigures a shared
+ * {@link ObjectMapper} and never rebuilds a collection type. Readers ignore unknown properties,
+ * and writers leave the streams they write to open.
+ *
+ * <p>By default the codecs are derived from {@link JsonBuilder#MAPPER}. A custom mapper, e.g. with extra modules
+ * or naming strategies, can be registered once at startup:</p>
+ * <pre>{@code
+ * JsonCodecs.registerProfile(new ObjectMapper().registerModule(new JavaTimeModule()));
+ * }</pre>
+ */
+public final class JsonCodecs {
+
+    private static volatile Profile profile = new Profile(JsonBuilder.MAPPER);
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * Derives all readers and writers from the given mapper from now on. The mapper must not be reconfigured
+     * after it is registered; the readers and writers created from the previous profile are discarded.
+     *
+     * @param mapper the mapper to derive the readers and writers from
+     */
+    public static void registerProfile(ObjectMapper mapper) {
+        profile = new Profile(Objects.requireNonNull(mapper));
+    }
+
+    /**
+     * Derives all readers and writers from {@link JsonBuilder#MAPPER} again.
+     */
+    public static void resetProfile() {
+        profile = new Profile(JsonBuilder.MAPPER);
+    }
+
+    /**
+     * @return the mapper of the registered profile
+     */
+    public static ObjectMapper mapper() {
+        return profile.mapper;
+    }
+
+    /**
+     * @param type the type to bind JSON to
+     * @return the cached reader for the given type
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        Profile current = profile;
+        return current.readerFor(current.mapper.constructType(type));
+    }
+
+    /**
+     * @param type the type to bind JSON to
+     * @return the cached reader for the given type
+     */
+    public static ObjectReader readerFor(JavaType type) {
+        return profile.readerFor(type);
+    }
+
+    /**
+     * @param elementType the type of the list elements
+     * @return the cached reader for a {@code List} of the given element type
+     */
+    public static ObjectReader listReaderFor(Class<?> elementType) {
+        Profile current = profile;
+        JavaType listType = current.listTypes.computeIfAbsent(elementType,
+                type -> current.mapper.getTypeFactory().constructCollectionType(List.class, type));
+        return current.readerFor(listType);
+    }
+
+    /**
+     * @return the writer producing compact JSON
+     */
+    public static ObjectWriter writer() {
+        return profile.writer;
+    }
+
+    /**
+     * @return the writer producing pretty-printed JSON
+     */
+    public static ObjectWriter prettyWriter() {
+        return profile.prettyWriter;
+    }
+
+    /**
+     * @param type the declared type of the values to write
+     * @return the cached writer for the given type, producing compact JSON
+     */
+    public static ObjectWriter writerFor(JavaType type) {
+        return profile.writerFor(type);
+    }
+
+    private static final class Profile {
+        private final ObjectMapper mapper;
+        private final ObjectWriter writer;
+        private final ObjectWriter prettyWriter;
+        private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+        private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+        private final Map<Class<?>, JavaType> listTypes = new ConcurrentHashMap<>();
+
+        private Profile(ObjectMapper mapper) {
+            this.mapper = mapper;
+            this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.prettyWriter = mapper.writerWithDefaultPrettyPrinter().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        private ObjectReader readerFor(JavaType type) {
+            return readers.computeIfAbsent(type,
+                    key -> mapper.readerFor(key).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        }
+
+        private ObjectWriter writerFor(JavaType type) {
+            return writers.computeIfAbsent(type, key -> mapper.writerFor(key).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+    }
+}
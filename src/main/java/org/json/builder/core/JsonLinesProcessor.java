@@ -0,0 +1,153 @@
+package org.json.builder.core;
+
+import lombok.SneakyThrows;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+/**
+ * Applies the same {@link JsonOperations} to every record of a JSON Lines (NDJSON) file and writes the changed
+ * records, one compact document per line, in input order. Blank lines are skipped.
+ *
+ * <p>Records are read one at a time on the calling thread and processed by a pool of workers in batches,
+ * with at most two batches per worker in flight, so memory use is bounded by the batch size and the number
+ * of workers regardless of the size of the file. The workers are kept between calls of {@code process} until the
+ * processor is closed.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * JsonOperations operations = JsonOperations.builder().update("status", "ARCHIVED").remove("payload").build();
+ * try (JsonLinesProcessor processor = new JsonLinesProcessor(operations).workers(4)) {
+ *     long count = processor.process(Path.of("in.jsonl"), Path.of("out.jsonl"));
+ * }
+ * }</pre>
+ */
+public final class JsonLinesProcessor implements AutoCloseable {
+
+    private final JsonOperations operations;
+    private final OrderedBatchPipeline pipeline = new OrderedBatchPipeline();
+
+    /**
+     * @param operations the operations to apply to every record
+     */
+    public JsonLinesProcessor(JsonOperations operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * @param workers the number of threads processing records, 1 to process them on the calling thread;
+     *                defaults to the number of available processors
+     * @return this processor
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public JsonLinesProcessor workers(int workers) {
+        pipeline.workers(workers);
+        return this;
+    }
+
+    /**
+     * @param batchSize the number of records handed to a worker at once; defaults to 256
+     * @return this processor
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public JsonLinesProcessor batchSize(int batchSize) {
+        pipeline.batchSize(batchSize);
+        return this;
+    }
+
+    /**
+     * @param executor the executor to process the records on instead of the processor's own workers, or null to
+     *                 use its own workers; it is not shut down by the processor, and the number of
+     *                 {@linkplain #workers(int) workers} still limits the batches in flight
+     * @return this processor
+     */
+    public JsonLinesProcessor executor(Executor executor) {
+        pipeline.executor(executor);
+        return this;
+    }
+
+    /**
+     * Stops the processor's own workers once their batches are processed. A later call of {@code process}
+     * starts new workers.
+     */
+    @Override
+    public void close() {
+        pipeline.close();
+    }
+
+    /**
+     * Processes every record of the input file and writes the results to the output file, replacing its content.
+     *
+     * @param inputFile  the UTF-8 encoded JSON Lines file to read
+     * @param outputFile the JSON Lines file to write
+     * @return the number of records written
+     */
+    @SneakyThrows
+    public long process(Path inputFile, Path outputFile) {
+        try (InputStream inputStream = Files.newInputStream(inputFile);
+             OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outputFile), 1 << 16)) {
+            return process(inputStream, outputStream);
+        }
+    }
+
+    /**
+     * Processes every record of the input stream and writes the results to the output stream.
+     * Neither stream is closed; the output stream is flushed.
+     *
+     * @param inputStream  the UTF-8 encoded JSON Lines to read
+     * @param outputStream the stream to write the JSON Lines to
+     * @return the number of records written
+     * @throws org.json.builder.exception.JsonBuilderException if a record cannot be parsed or changed;
+     *                                                         the records before its batch are already written
+     */
+    public long process(InputStream inputStream, OutputStream outputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), 1 << 16);
+        OrderedBatchPipeline.RecordEncoder<String> encoder = (line, buffer) -> {
+            JsonBuilder.writeJsonNode(operations.applyTo(JsonBuilder.MAPPER.readTree(line)), buffer, false);
+            buffer.write('\n');
+        };
+        return pipeline.run(new RecordIterator(reader), encoder, outputStream);
+    }
+
+    /**
+     * The non-blank lines of a reader.
+     */
+    private static final class RecordIterator implements Iterator<String> {
+        private final BufferedReader reader;
+        private String next;
+
+        private RecordIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        @SneakyThrows
+        public boolean hasNext() {
+            while (next == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (!line.isBlank()) {
+                    next = line;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = next;
+            next = null;
+            return line;
+        }
+    }
+}
@@ -2,7 +2,10 @@ package org.json.builder.core;
 
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
@@ -10,7 +13,13 @@ import org.json.builder.exception.JsonBuilderException;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.function.Predicate;
@@ -50,8 +59,9 @@ public class JsonObjectBuilder implements JsonBuilder {
         System.out.println(jsonString);
     }
 
-    private final Map<String, Object> jsonPathValueMapToAppend = new LinkedHashMap<>();
-    private final Map<String, Object> jsonPathValueMapToRemove = new LinkedHashMap<>();
+    private final PathTrie pendingChanges = new PathTrie();
+    private final CopyOnWrite copyOnWrite = new CopyOnWrite();
+    private volatile JsonSnapshot snapshot;
     private ObjectNode rootObjectNode = MAPPER.createObjectNode();
 
     /**
@@ -74,7 +84,8 @@ public class JsonObjectBuilder implements JsonBuilder {
     @SneakyThrows
     public synchronized JsonObjectBuilder fromJsonFile(String jsonFileName) {
         validateFileName(jsonFileName);
-        this.rootObjectNode = (ObjectNode) MAPPER.readTree(new File(jsonFileName));
+        this.rootObjectNode = readJsonFile(new File(jsonFileName), ObjectNode.class);
+        this.snapshot = null;
         return this;
     }
 
@@ -98,7 +109,8 @@ public class JsonObjectBuilder implements JsonBuilder {
     @SneakyThrows
     public synchronized JsonObjectBuilder fromJsonFile(File jsonFile) {
         validateFile(jsonFile);
-        this.rootObjectNode = (ObjectNode) MAPPER.readTree(jsonFile);
+        this.rootObjectNode = readJsonFile(jsonFile, ObjectNode.class);
+        this.snapshot = null;
         return this;
     }
 
@@ -123,6 +135,104 @@ public class JsonObjectBuilder implements JsonBuilder {
     public synchronized JsonObjectBuilder fromJsonString(String json) {
         validateJsonString(json);
         this.rootObjectNode = (ObjectNode) MAPPER.readTree(json);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    /**
+     * Build JSON data by parsing a range of UTF-8 encoded bytes, e.g. an HTTP body or a message payload,
+     * without decoding it into a String first.
+     *
+     * @param json   the array holding the JSON bytes
+     * @param offset the index of the first JSON byte
+     * @param length the number of JSON bytes
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the byte range is empty
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * byte[] body = response.body();
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * String json = builder.fromBytes(body, 0, body.length).build().toPrettyString();
+     * }</pre>
+     */
+    @Override
+    @SneakyThrows
+    public synchronized JsonObjectBuilder fromBytes(byte[] json, int offset, int length) {
+        validateBytes(json, length);
+        this.rootObjectNode = (ObjectNode) MAPPER.readTree(json, offset, length);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    /**
+     * Build JSON data by parsing a UTF-8 encoded stream. The stream is closed once it is read.
+     *
+     * @param inputStream the stream holding the JSON
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the stream is null
+     */
+    @Override
+    @SneakyThrows
+    public synchronized JsonObjectBuilder fromInputStream(InputStream inputStream) {
+        validateInputStream(inputStream);
+        this.rootObjectNode = (ObjectNode) MAPPER.readTree(inputStream);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    /**
+     * Build JSON data by parsing the remaining UTF-8 encoded bytes of a buffer. The position of the buffer is not changed.
+     *
+     * @param buffer the buffer holding the JSON
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the buffer has no remaining bytes
+     */
+    @Override
+    public synchronized JsonObjectBuilder fromByteBuffer(ByteBuffer buffer) {
+        validateByteBuffer(buffer);
+        this.rootObjectNode = (ObjectNode) JsonBuilder.readJsonNode(buffer);
+        this.snapshot = null;
+        this.copyOnWrite.release();
+        return this;
+    }
+
+    /**
+     * Build JSON data by reading from a json-file.
+     *
+     * @param jsonFile the JSON file
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the file is invalid
+     */
+    @Override
+    public synchronized JsonObjectBuilder fromPath(Path jsonFile) {
+        return fromPath(jsonFile, ReadMode.STANDARD);
+    }
+
+    /**
+     * Build JSON data by reading from a json-file in the given read mode.
+     * With {@link ReadMode#MMAP} the file is memory-mapped and parsed from the mapped region,
+     * which avoids copying the file content into the heap and decoding it into characters.
+     *
+     * @param jsonFile the JSON file
+     * @param readMode the way the file is read
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the file is invalid
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * String json = builder.fromPath(Path.of("file-path/data.json"), ReadMode.MMAP).build().toPrettyString();
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder fromPath(Path jsonFile, ReadMode readMode) {
+        this.rootObjectNode = (ObjectNode) JsonBuilder.readJsonNode(jsonFile, readMode);
+        this.snapshot = null;
+        this.copyOnWrite.release();
         return this;
     }
 
@@ -145,6 +255,8 @@ public class JsonObjectBuilder implements JsonBuilder {
     @SneakyThrows
     public synchronized JsonObjectBuilder fromEmptyNode() {
         this.rootObjectNode = MAPPER.createObjectNode();
+        this.snapshot = null;
+        this.copyOnWrite.release();
         return this;
     }
 
@@ -177,8 +289,31 @@ public class JsonObjectBuilder implements JsonBuilder {
      */
     @Override
     public synchronized JsonObjectBuilder update(String jsonNodePath, Object value, NodeType dataTypeOfValue) {
+        return update(CompiledPath.of(jsonNodePath), value, dataTypeOfValue);
+    }
+
+    /**
+     * Updates the value at the specified compiled JSON node path with the given value and data type.
+     * Behaves like {@link #update(String, Object, NodeType)} without parsing the path again.
+     *
+     * @param jsonNodePath    the compiled path of the JSON node to update
+     * @param value           the value to set at the specified JSON node path
+     * @param dataTypeOfValue the data type of the value to set
+     * @return the current instance of JsonObjectBuilder
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * CompiledPath age = CompiledPath.of("age");
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * builder.fromJsonString("{\"name\":\"John\"}")
+     *        .update(age, 30, NodeType.INT)
+     *        .build();
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder update(CompiledPath jsonNodePath, Object value, NodeType dataTypeOfValue) {
         if (JsonBuilder.isNotSkippable(value)) {
-            jsonPathValueMapToAppend.put(convertPath(jsonNodePath), JsonBuilder.convertValueOfRequiredDataType(value, dataTypeOfValue));
+            pendingChanges.update(jsonNodePath, JsonBuilder.convertValueOfRequiredDataType(value, dataTypeOfValue));
         }
         return this;
     }
@@ -186,6 +321,9 @@ public class JsonObjectBuilder implements JsonBuilder {
     /**
      * Updates the value at the specified JSON node path with the given value as a string.
      * If the JSON node path does not exist, it creates a new node with the given value as a string.
+     * To set a typed value without converting it to a string, use {@link #updateLong(String, long)},
+     * {@link #updateDouble(String, double)}, {@link #updateBoolean(String, boolean)}, {@link #updateDecimal(String, BigDecimal)}
+     * or {@link #updateNode(String, JsonNode)}.
      *
      * @param jsonNodePath the path of the JSON node to update
      * @param value        the value to set at the specified JSON node path
@@ -214,6 +352,169 @@ public class JsonObjectBuilder implements JsonBuilder {
         return update(jsonNodePath, value, NodeType.STRING);
     }
 
+    /**
+     * Updates the value at the specified compiled JSON node path with the given value as a string.
+     * Behaves like {@link #update(String, Object)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder update(CompiledPath jsonNodePath, Object value) {
+        return update(jsonNodePath, value, NodeType.STRING);
+    }
+
+    /**
+     * Updates the value at the specified JSON node path with the given number.
+     * The number node is created directly, without converting the value to a string and back.
+     *
+     * @param jsonNodePath the path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * builder.fromJsonString("{\"name\":\"John\"}")
+     *        .updateLong("id", 9007199254740993L)
+     *        .build();
+     * String jsonString = builder.toPrettyString();
+     * System.out.println(jsonString);
+     * }</pre>
+     *
+     * <p>Output:</p>
+     * <pre>{@code
+     * {
+     *   "name" : "John",
+     *   "id" : 9007199254740993
+     * }
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateLong(String jsonNodePath, long value) {
+        return updateLong(CompiledPath.of(jsonNodePath), value);
+    }
+
+    /**
+     * Updates the value at the specified JSON node path with the given number.
+     *
+     * @param jsonNodePath the path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     * @throws IllegalArgumentException if the value is NaN or infinite, which JSON cannot represent
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateDouble(String jsonNodePath, double value) {
+        return updateDouble(CompiledPath.of(jsonNodePath), value);
+    }
+
+    /**
+     * Updates the value at the specified JSON node path with the given boolean.
+     *
+     * @param jsonNodePath the path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateBoolean(String jsonNodePath, boolean value) {
+        return updateBoolean(CompiledPath.of(jsonNodePath), value);
+    }
+
+    /**
+     * Updates the value at the specified JSON node path with the given decimal, keeping its precision and scale.
+     *
+     * @param jsonNodePath the path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path, or null for a JSON null
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateDecimal(String jsonNodePath, BigDecimal value) {
+        return updateDecimal(CompiledPath.of(jsonNodePath), value);
+    }
+
+    /**
+     * Updates the value at the specified JSON node path with the given node.
+     * Objects and arrays are copied, so later changes to the node and to the builder do not affect each other.
+     *
+     * @param jsonNodePath the path of the JSON node to update
+     * @param value        the node to set at the specified JSON node path, or null for a JSON null
+     * @return the current instance of JsonObjectBuilder
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * builder.fromJsonString("{\"name\":\"John\"}")
+     *        .updateNode("address", JsonBuilder.MAPPER.createObjectNode().put("city", "Paris"))
+     *        .build();
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateNode(String jsonNodePath, JsonNode value) {
+        return updateNode(CompiledPath.of(jsonNodePath), value);
+    }
+
+    /**
+     * Behaves like {@link #updateLong(String, long)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateLong(CompiledPath jsonNodePath, long value) {
+        return updateNode(jsonNodePath, LongNode.valueOf(value));
+    }
+
+    /**
+     * Behaves like {@link #updateDouble(String, double)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateDouble(CompiledPath jsonNodePath, double value) {
+        return updateNode(jsonNodePath, JsonBuilder.doubleNode(value));
+    }
+
+    /**
+     * Behaves like {@link #updateBoolean(String, boolean)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateBoolean(CompiledPath jsonNodePath, boolean value) {
+        return updateNode(jsonNodePath, BooleanNode.valueOf(value));
+    }
+
+    /**
+     * Behaves like {@link #updateDecimal(String, BigDecimal)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to update
+     * @param value        the value to set at the specified JSON node path, or null for a JSON null
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateDecimal(CompiledPath jsonNodePath, BigDecimal value) {
+        return updateNode(jsonNodePath, value == null ? NullNode.getInstance() : DecimalNode.valueOf(value));
+    }
+
+    /**
+     * Behaves like {@link #updateNode(String, JsonNode)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to update
+     * @param value        the node to set at the specified JSON node path, or null for a JSON null
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder updateNode(CompiledPath jsonNodePath, JsonNode value) {
+        pendingChanges.update(jsonNodePath, value == null ? NullNode.getInstance() : value.deepCopy());
+        return this;
+    }
+
     /**
      * Updates the value of a key in an array node if the specified condition is met.
      * If the condition is met, the value of the key in the array node at the specified path is updated with the new value.
@@ -281,14 +582,26 @@ public class JsonObjectBuilder implements JsonBuilder {
      */
     @Override
     public synchronized JsonObjectBuilder remove(String jsonNodePath) {
-        jsonPathValueMapToRemove.put(convertPath(jsonNodePath), "");
+        return remove(CompiledPath.of(jsonNodePath));
+    }
+
+    /**
+     * Removes the JSON node at the specified compiled path.
+     * Behaves like {@link #remove(String)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to remove
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder remove(CompiledPath jsonNodePath) {
+        pendingChanges.remove(jsonNodePath);
         return this;
     }
 
     /**
      * Builds the JSON object by applying all the updates and removals.
-     * This method processes the maps of JSON paths to append and remove,
-     * applying the changes to the root JSON object node.
+     * The pending paths are grouped by their common prefixes and applied to the root JSON object node
+     * in a single pass, so every shared parent node is resolved only once.
      *
      * @return the current instance of JsonObjectBuilder
      *
@@ -312,10 +625,53 @@ public class JsonObjectBuilder implements JsonBuilder {
      */
     @Override
     public synchronized JsonObjectBuilder build() {
-        jsonPathValueMapToAppend.forEach((key, value) -> setJsonPointerValue(rootObjectNode, JsonPointer.compile(key), (JsonNode) value));
-        jsonPathValueMapToAppend.clear();
-        jsonPathValueMapToRemove.forEach((key, value) -> removeJsonPointerValue(rootObjectNode, JsonPointer.compile(key)));
-        jsonPathValueMapToRemove.clear();
+        rootObjectNode = (ObjectNode) pendingChanges.applyTo(rootObjectNode, copyOnWrite);
+        pendingChanges.clear();
+        snapshot = null;
+        return this;
+    }
+
+    /**
+     * Applies a JSON Patch (RFC 6902) to the JSON object. Pending updates and removals are built first,
+     * then all operations are applied in one pass in their order, caching every object and array resolved on the
+     * way by its JSON Pointer. {@code test} operations compare numbers by value.
+     * The patch is atomic: when an operation fails, the operations before it are undone and the JSON object is left
+     * as it was before the patch.
+     *
+     * @param patch the array of patch operations
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the patch is malformed, a path does not exist, a {@code test} operation fails
+     *                              or the patch replaces the root with something other than a JSON object
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonNode patch = JsonBuilder.arrayBuilder()
+     *         .fromJsonString("[{\"op\":\"test\",\"path\":\"/age\",\"value\":30},{\"op\":\"replace\",\"path\":\"/age\",\"value\":31}]")
+     *         .buildAsJsonNode();
+     * builder.fromJsonString("{\"name\":\"John\", \"age\":30}")
+     *        .applyPatch(patch);
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder applyPatch(JsonNode patch) {
+        build();
+        setPatchedRoot(JsonPatches.applyPatch(copyOnWrite.detach(rootObjectNode), patch));
+        return this;
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7386) to the JSON object. Pending updates and removals are built first.
+     * Members of the patch that are null are removed, objects are merged recursively and all other values replace
+     * the current ones.
+     *
+     * @param mergePatch the merge patch
+     * @return the current instance of JsonObjectBuilder
+     * @throws JsonBuilderException if the merge patch is not a JSON object
+     */
+    @Override
+    public synchronized JsonObjectBuilder applyMergePatch(JsonNode mergePatch) {
+        build();
+        setPatchedRoot(JsonPatches.applyMergePatch(copyOnWrite.detach(rootObjectNode), mergePatch));
         return this;
     }
 
@@ -382,6 +738,78 @@ public class JsonObjectBuilder implements JsonBuilder {
         return rootObjectNode;
     }
 
+    /**
+     * Returns an immutable snapshot of the JSON object as of the last {@link #build()}.
+     * Updates and removals staged since then are not part of it.
+     * The snapshot is created on first use after a change and then shared, so reading it takes no lock
+     * and scales with the number of reading threads while writers keep using the builder.
+     * Changes made directly to nodes returned by {@link #getNodeAt(String)} or {@link #buildAsJsonNode()}
+     * appear in the snapshot after the next {@link #build()}.
+     *
+     * @return the current snapshot
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * builder.fromJsonString("{\"name\":\"John\", \"age\":30}").build();
+     * JsonSnapshot snapshot = builder.snapshot();
+     * System.out.println(snapshot.getNodeAt("name").asText());
+     * }</pre>
+     *
+     * <p>Output:</p>
+     * <pre>{@code
+     * John
+     * }</pre>
+     */
+    @Override
+    public JsonSnapshot snapshot() {
+        JsonSnapshot current = snapshot;
+        return current != null ? current : publishSnapshot();
+    }
+
+    private synchronized JsonSnapshot publishSnapshot() {
+        if (snapshot == null) {
+            snapshot = new JsonSnapshot(rootObjectNode.deepCopy());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Creates a copy-on-write fork of this builder. Pending updates and removals are built first.
+     * The fork starts with the same JSON object and shares all of its nodes with this builder instead of copying them.
+     * From then on, an update or removal on either builder copies only the objects and arrays on its path, so making
+     * many variants of one document costs the depth of their changes rather than the size of the document.
+     * Nodes returned by {@link #getNodeAt(String)} or {@link #buildAsJsonNode()} may be shared with forks and must not be
+     * changed directly; {@link #applyPatch(JsonNode)} and {@link #applyMergePatch(JsonNode)} copy the whole document
+     * once before they change it.
+     *
+     * @return a new builder with the same JSON object
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonObjectBuilder base = new JsonObjectBuilder();
+     * base.fromJsonFile("order.json");
+     * JsonObjectBuilder withoutId = base.fork().remove("order.id");
+     * JsonObjectBuilder negativeQty = base.fork().update("order.items[0].qty", -1, NodeType.INTEGER);
+     * System.out.println(base.getNodeAt("order.id").asText());
+     * }</pre>
+     *
+     * <p>Output:</p>
+     * <pre>{@code
+     * A-1001
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder fork() {
+        build();
+        copyOnWrite.share();
+        JsonObjectBuilder fork = new JsonObjectBuilder();
+        fork.rootObjectNode = rootObjectNode;
+        fork.copyOnWrite.share();
+        fork.snapshot = snapshot;
+        return fork;
+    }
+
     /**
      * Retrieves the JSON node at the specified path.
      * This method navigates the JSON structure using the given path and returns the node found at that path.
@@ -407,6 +835,18 @@ public class JsonObjectBuilder implements JsonBuilder {
         return rootObjectNode.at(convertPath(jsonNodePath));
     }
 
+    /**
+     * Retrieves the JSON node at the specified compiled path.
+     * Behaves like {@link #getNodeAt(String)} without parsing the path again.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to retrieve
+     * @return the JSON node at the specified path
+     */
+    @Override
+    public synchronized JsonNode getNodeAt(CompiledPath jsonNodePath) {
+        return rootObjectNode.at(jsonNodePath.toPointer());
+    }
+
     /**
      * Cleans the JSON object builder by removing all nodes and clearing the maps of paths to append and remove.
      * This method resets the builder to an empty state.
@@ -428,15 +868,16 @@ public class JsonObjectBuilder implements JsonBuilder {
      */
     @Override
     public synchronized void clean() {
+        rootObjectNode = copyOnWrite.writable(rootObjectNode);
         rootObjectNode.removeAll();
-        jsonPathValueMapToAppend.clear();
-        jsonPathValueMapToRemove.clear();
+        pendingChanges.clear();
+        snapshot = null;
     }
 
     /**
      * Writes the JSON object to a file at the specified file path.
      * This method builds the JSON object by applying all the updates and removals,
-     * and then writes the resulting JSON object to a file in a pretty-printed format.
+     * and then streams the resulting JSON object to a file in a pretty-printed format.
      *
      * @param filePath the path of the file to write the JSON object to
      * @return the current instance of JsonObjectBuilder
@@ -457,13 +898,103 @@ public class JsonObjectBuilder implements JsonBuilder {
      * }
      * }</pre>
      */
-    @SneakyThrows
     @Override
     public synchronized JsonObjectBuilder writeTo(String filePath) {
-        Files.writeString(Paths.get(filePath), toPrettyString());
+        return writeTo(Paths.get(filePath));
+    }
+
+    /**
+     * Writes the JSON object to a file in a pretty-printed format.
+     * The JSON is streamed to the file through a Jackson generator, so no intermediate String is created.
+     *
+     * @param filePath the path of the file to write the JSON object to
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder writeTo(Path filePath) {
+        return writeTo(filePath, true);
+    }
+
+    /**
+     * Writes the JSON object to a file, either pretty-printed or compact.
+     * The JSON is streamed to the file through a Jackson generator, so no intermediate String is created.
+     *
+     * @param filePath the path of the file to write the JSON object to
+     * @param pretty   true to pretty-print the JSON, false to write it compactly
+     * @return the current instance of JsonObjectBuilder
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * JsonObjectBuilder builder = new JsonObjectBuilder();
+     * builder.fromJsonString("{\"name\":\"John\", \"age\":30}")
+     *        .update("age", 31)
+     *        .writeTo(Path.of("output.json"), false);
+     * }</pre>
+     *
+     * <p>Output file content (output.json):</p>
+     * <pre>{@code
+     * {"name":"John","age":"31"}
+     * }</pre>
+     */
+    @Override
+    public synchronized JsonObjectBuilder writeTo(Path filePath, boolean pretty) {
+        build();
+        JsonBuilder.writeJsonNode(rootObjectNode, filePath, pretty);
+        return this;
+    }
+
+    /**
+     * Writes the JSON object to the given stream in a pretty-printed format.
+     * The stream is flushed but not closed.
+     *
+     * @param outputStream the stream to write the UTF-8 encoded JSON object to
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder writeTo(OutputStream outputStream) {
+        return writeTo(outputStream, true);
+    }
+
+    /**
+     * Writes the JSON object to the given stream, either pretty-printed or compact.
+     * The stream is flushed but not closed.
+     *
+     * @param outputStream the stream to write the UTF-8 encoded JSON object to
+     * @param pretty       true to pretty-print the JSON, false to write it compactly
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder writeTo(OutputStream outputStream, boolean pretty) {
+        build();
+        JsonBuilder.writeJsonNode(rootObjectNode, outputStream, pretty);
         return this;
     }
 
+    /**
+     * Writes the JSON object to the given channel in a pretty-printed format.
+     * The channel is not closed.
+     *
+     * @param channel the channel to write the UTF-8 encoded JSON object to
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder writeTo(WritableByteChannel channel) {
+        return writeTo(channel, true);
+    }
+
+    /**
+     * Writes the JSON object to the given channel, either pretty-printed or compact.
+     * The channel is not closed.
+     *
+     * @param channel the channel to write the UTF-8 encoded JSON object to
+     * @param pretty  true to pretty-print the JSON, false to write it compactly
+     * @return the current instance of JsonObjectBuilder
+     */
+    @Override
+    public synchronized JsonObjectBuilder writeTo(WritableByteChannel channel, boolean pretty) {
+        return writeTo(Channels.newOutputStream(channel), pretty);
+    }
+
     /**
      * Checks if the JSON object builder is empty.
      * This method verifies if the root JSON object node is null, empty, or missing.
@@ -621,48 +1152,6 @@ public class JsonObjectBuilder implements JsonBuilder {
         return JsonBuilder.collectJsonPathKeyValuePairs(rootObjectNode, StringUtils.EMPTY, new LinkedHashMap<>());
     }
 
-    private void setJsonPointerValue(ObjectNode node, JsonPointer pointer, JsonNode value) {
-        JsonPointer parentPointer = pointer.head();
-        JsonNode parentNode = node.at(parentPointer);
-        String fieldName = pointer.last().toString().substring(1);
-
-        if (parentNode.isMissingNode() || parentNode.isNull()) {
-            parentNode = StringUtils.isNumeric(fieldName) ? MAPPER.createArrayNode() : MAPPER.createObjectNode();
-            setJsonPointerValue(node, parentPointer, parentNode);
-        }
-
-        if (parentNode.isArray()) {
-            ArrayNode arrayNode = (ArrayNode) parentNode;
-            int index = Integer.parseInt(fieldName);
-            for (int i = arrayNode.size(); i <= index; i++) {
-                arrayNode.addObject();
-            }
-            arrayNode.set(index, value);
-        } else if (parentNode.isObject()) {
-            ((ObjectNode) parentNode).set(fieldName, value);
-        } else {
-            throw new IllegalArgumentException("Invalid parent node type for field: " + fieldName);
-        }
-    }
-
-    private void removeJsonPointerValue(ObjectNode node, JsonPointer pointer) {
-        JsonPointer parentPointer = pointer.head();
-        JsonNode parentNode = node.at(parentPointer);
-        String fieldName = pointer.last().toString().substring(1);
-
-        if (parentNode.isMissingNode() || parentNode.isNull()) {
-            return;
-        }
-
-        if (parentNode.isArray()) {
-            ((ArrayNode) parentNode).remove(Integer.parseInt(fieldName));
-        } else if (parentNode.isObject()) {
-            ((ObjectNode) parentNode).remove(fieldName);
-        } else {
-            throw new IllegalArgumentException("Invalid parent node type for field: " + fieldName);
-        }
-    }
-
     private void updateNodeIf(Predicate<JsonNode> condition, String nodePath, String targetNodePath, String newValue) {
         JsonNode node = getNodeAt(nodePath);
         if (node.isArray()) {
@@ -680,6 +1169,21 @@ public class JsonObjectBuilder implements JsonBuilder {
         }
     }
 
+    /**
+     * Reads the file and only then updates the copy-on-write state, so a file that cannot be read or has another
+     * root type leaves the current tree and its state unchanged.
+     */
+    private <T extends JsonNode> T readJsonFile(File jsonFile, Class<T> rootType) throws IOException {
+        TemplateCache templateCache = TemplateCache.installed();
+        T root = rootType.cast(templateCache == null ? MAPPER.readTree(jsonFile) : templateCache.load(jsonFile));
+        if (templateCache != null && templateCache.sharesTrees()) {
+            copyOnWrite.share();
+        } else {
+            copyOnWrite.release();
+        }
+        return root;
+    }
+
     private void validateFileName(String fileName) {
         if (fileName.isBlank()) {
             throw new JsonBuilderException("File name is blank.");
@@ -698,13 +1202,41 @@ public class JsonObjectBuilder implements JsonBuilder {
         }
     }
 
+    private void validateBytes(byte[] json, int length) {
+        if (Objects.isNull(json) || length <= 0) {
+            throw new JsonBuilderException("Invalid JSON bytes.");
+        }
+    }
+
+    private void validateInputStream(InputStream inputStream) {
+        if (Objects.isNull(inputStream)) {
+            throw new JsonBuilderException("Invalid JSON stream.");
+        }
+    }
+
+    private void validateByteBuffer(ByteBuffer buffer) {
+        if (Objects.isNull(buffer) || !buffer.hasRemaining()) {
+            throw new JsonBuilderException("Invalid JSON buffer.");
+        }
+    }
+
+    private void setPatchedRoot(JsonNode patchedRoot) {
+        if (!patchedRoot.isObject()) {
+            throw new JsonBuilderException("Root node is not a JSON object.");
+        }
+        this.rootObjectNode = (ObjectNode) patchedRoot;
+        this.snapshot = null;
+        // the patched root is detached from the forks
+        this.copyOnWrite.release();
+    }
+
     private void validateRootNode() {
         if (Objects.isNull(rootObjectNode)) {
             throw new JsonBuilderException("Root node is null.");
         }
     }
 
-    private String convertPath(String jsonNodePath) {
-        return JsonBuilder.convertJsonNodePathWithSlashSeparator(jsonNodePath);
+    private JsonPointer convertPath(String jsonNodePath) {
+        return CompiledPath.of(jsonNodePath).toPointer();
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed set of updates and removals, compiled once and then applied to any number of documents.
+ * Applying the operations gives the same result as staging them on a builder and calling {@code build()}:
+ * the updates are applied first, followed by the removals. Instances are immutable and can be applied
+ * from many threads at once; object and array values are copied into every document.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * JsonOperations operations = JsonOperations.builder()
+ *         .update("status", "PROCESSED")
+ *         .update("retries", 0, NodeType.INTEGER)
+ *         .remove("internal.debug")
+ *         .build();
+ * operations.applyTo(document);
+ * }</pre>
+ */
+public final class JsonOperations {
+
+    private final PathTrie changes;
+
+    private JsonOperations(PathTrie changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * @return a new builder of operations
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Applies the operations to the given document in place.
+     *
+     * @param root the root object or array node of the document
+     * @return the given root node
+     * @throws IllegalArgumentException if a path runs through a value that is neither an object nor an array
+     */
+    public JsonNode applyTo(JsonNode root) {
+        changes.applyTo(root, true);
+        return root;
+    }
+
+    /**
+     * @return true if there are no operations
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Collects the operations in the order they are applied on a builder.
+     */
+    public static final class Builder {
+
+        private final List<CompiledPath> paths = new ArrayList<>();
+        private final List<JsonNode> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Updates the value at the specified path with the given value as a string.
+         *
+         * @param jsonNodePath the path of the JSON node to update
+         * @param value        the value to set
+         * @return this builder
+         */
+        public Builder update(String jsonNodePath, Object value) {
+            return update(CompiledPath.of(jsonNodePath), value, NodeType.STRING);
+        }
+
+        /**
+         * Updates the value at the specified path with the given value of the specified type.
+         * {@code Skip} and {@code Ignore} values are not added, like on a builder.
+         *
+         * @param jsonNodePath    the path of the JSON node to update
+         * @param value           the value to set
+         * @param dataTypeOfValue the data type of the value
+         * @return this builder
+         */
+        public Builder update(String jsonNodePath, Object value, NodeType dataTypeOfValue) {
+            return update(CompiledPath.of(jsonNodePath), value, dataTypeOfValue);
+        }
+
+        /**
+         * Updates the value at the specified compiled path with the given value of the specified type.
+         *
+         * @param jsonNodePath    the compiled path of the JSON node to update
+         * @param value           the value to set
+         * @param dataTypeOfValue the data type of the value
+         * @return this builder
+         */
+        public Builder update(CompiledPath jsonNodePath, Object value, NodeType dataTypeOfValue) {
+            if (JsonBuilder.isNotSkippable(value)) {
+                paths.add(jsonNodePath);
+                values.add(JsonBuilder.convertValueOfRequiredDataType(value, dataTypeOfValue));
+            }
+            return this;
+        }
+
+        /**
+         * Removes the node at the specified path.
+         *
+         * @param jsonNodePath the path of the JSON node to remove
+         * @return this builder
+         */
+        public Builder remove(String jsonNodePath) {
+            return remove(CompiledPath.of(jsonNodePath));
+        }
+
+        /**
+         * Removes the node at the specified compiled path.
+         *
+         * @param jsonNodePath the compiled path of the JSON node to remove
+         * @return this builder
+         */
+        public Builder remove(CompiledPath jsonNodePath) {
+            paths.add(jsonNodePath);
+            values.add(null);
+            return this;
+        }
+
+        /**
+         * Compiles the operations collected so far. The builder can be used further without affecting the result.
+         *
+         * @return the compiled operations
+         */
+        public JsonOperations build() {
+            PathTrie changes = new PathTrie();
+            for (int i = 0; i < paths.size(); i++) {
+                if (values.get(i) == null) {
+                    changes.remove(paths.get(i));
+                } else {
+                    changes.update(paths.get(i), values.get(i).deepCopy());
+                }
+            }
+            return new JsonOperations(changes);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.json.builder.exception.JsonBuilderException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies JSON Patch (RFC 6902) and JSON Merge Patch (RFC 7386) documents to a tree in place.
+ *
+ * <p>The operations of a patch are applied in one pass in their order. Every container resolved on the way to a
+ * path is cached by its JSON Pointer, so an operation looks up its parent with one map lookup once the parent or any
+ * of its ancestors was resolved before, and only walks the segments below it. Each path is split into its parent
+ * pointer and last segment once per operation. An operation that changes a container drops the cached containers
+ * below the changed member, or below all elements when an array shifts. {@code test} and {@code copy} look up their
+ * nodes through the same cache, and {@code test} operations are checked in the same pass, with numbers compared by
+ * value.</p>
+ *
+ * <p>A JSON Patch is atomic, as required by RFC 6902: every change records how to undo it, and when an operation
+ * fails, the recorded changes are undone in reverse order, so the document is left as it was before the patch.
+ * Undoing the removal of an object member puts it back at its former position.</p>
+ */
+final class JsonPatches {
+
+    private static final Comparator<JsonNode> NUMBERS_BY_VALUE = (first, second) -> first.equals(second)
+            || first.isNumber() && second.isNumber() && first.decimalValue().compareTo(second.decimalValue()) == 0 ? 0 : 1;
+
+    private final Map<String, Container> containers = new HashMap<>();
+    private final Deque<Runnable> undoLog = new ArrayDeque<>();
+    private JsonNode root;
+
+    private JsonPatches(JsonNode root) {
+        setRoot(root);
+    }
+
+    /**
+     * Applies a JSON Patch.
+     *
+     * @param root  the document to change
+     * @param patch the array of patch operations
+     * @return the root of the changed document, which is a new node if the patch replaces the whole document
+     * @throws JsonBuilderException if the patch is malformed, a path does not exist, a {@code test} fails or the
+     *                              patched root is not the same type of container as the root; the document is then
+     *                              left unchanged
+     */
+    static JsonNode applyPatch(JsonNode root, JsonNode patch) {
+        if (!patch.isArray()) {
+            throw new JsonBuilderException("A JSON Patch must be an array of operations.");
+        }
+        JsonPatches patches = new JsonPatches(root);
+        try {
+            for (JsonNode operation : patch) {
+                patches.apply(operation);
+            }
+            if (patches.root.getNodeType() != root.getNodeType()) {
+                throw new JsonBuilderException("Root node is not a JSON " + (root.isArray() ? "array." : "object."));
+            }
+        } catch (RuntimeException e) {
+            patches.rollback();
+            throw e;
+        }
+        return patches.root;
+    }
+
+    /**
+     * Applies a JSON Merge Patch.
+     *
+     * @param root  the document to change
+     * @param patch the merge patch
+     * @return the root of the changed document, which is a new node unless both are objects
+     */
+    static JsonNode applyMergePatch(JsonNode root, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode target = root != null && root.isObject() ? (ObjectNode) root : JsonBuilder.MAPPER.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                target.remove(field.getKey());
+            } else {
+                JsonNode current = target.get(field.getKey());
+                JsonNode merged = applyMergePatch(current, field.getValue());
+                if (merged != current) target.set(field.getKey(), merged);
+            }
+        }
+        return target;
+    }
+
+    private void apply(JsonNode operation) {
+        String op = requireText(operation, "op");
+        String path = requireText(operation, "path");
+        switch (op) {
+            case "add" -> add(path, requireValue(operation));
+            case "remove" -> remove(path);
+            case "replace" -> replace(path, requireValue(operation));
+            case "move" -> {
+                String from = requireText(operation, "from");
+                if (path.startsWith(from + "/")) {
+                    throw new JsonBuilderException("Cannot move a JSON node into its own child: " + from + " => " + path);
+                }
+                if (!from.equals(path)) add(path, remove(from));
+            }
+            case "copy" -> add(path, get(requireText(operation, "from")).deepCopy());
+            case "test" -> {
+                if (!requireValue(operation).equals(NUMBERS_BY_VALUE, get(path))) {
+                    throw new JsonBuilderException("JSON Patch test failed at path: " + path);
+                }
+            }
+            default -> throw new JsonBuilderException("Unknown JSON Patch operation: " + op);
+        }
+    }
+
+    private void add(String path, JsonNode value) {
+        if (path.isEmpty()) {
+            replaceRoot(value);
+            return;
+        }
+        int slash = path.lastIndexOf('/');
+        Container container = parentOf(path, slash);
+        String name = unescape(path.substring(slash + 1));
+        if (container.node.isObject()) {
+            setMember((ObjectNode) container.node, name, value);
+            container.drop(name);
+        } else if (name.equals("-")) {
+            ArrayNode array = (ArrayNode) container.node;
+            array.add(value);
+            int index = array.size() - 1;
+            undoLog.push(() -> array.remove(index));
+        } else {
+            int index = parseIndex(name, path);
+            if (index > container.node.size()) {
+                throw new JsonBuilderException("JSON Patch index out of bounds: " + path);
+            }
+            ArrayNode array = (ArrayNode) container.node;
+            array.insert(index, value);
+            undoLog.push(() -> array.remove(index));
+            container.dropAll();
+        }
+    }
+
+    private void replace(String path, JsonNode value) {
+        if (path.isEmpty()) {
+            replaceRoot(value);
+            return;
+        }
+        int slash = path.lastIndexOf('/');
+        Container container = parentOf(path, slash);
+        String name = unescape(path.substring(slash + 1));
+        if (container.node.isObject() && container.node.has(name)) {
+            // setting an existing field keeps its position
+            setMember((ObjectNode) container.node, name, value);
+        } else if (container.node.isArray() && parseIndex(name, path) < container.node.size()) {
+            ArrayNode array = (ArrayNode) container.node;
+            int index = Integer.parseInt(name);
+            JsonNode previous = array.set(index, value);
+            undoLog.push(() -> array.set(index, previous));
+        } else {
+            throw new JsonBuilderException("JSON Patch path not found: " + path);
+        }
+        container.drop(name);
+    }
+
+    private JsonNode remove(String path) {
+        if (path.isEmpty()) {
+            JsonNode removed = root;
+            replaceRoot(root.isArray() ? JsonBuilder.MAPPER.createArrayNode() : JsonBuilder.MAPPER.createObjectNode());
+            return removed;
+        }
+        int slash = path.lastIndexOf('/');
+        Container container = parentOf(path, slash);
+        String name = unescape(path.substring(slash + 1));
+        JsonNode removed = container.node.isObject()
+                ? removeMember((ObjectNode) container.node, name)
+                : removeElement((ArrayNode) container.node, parseIndex(name, path));
+        if (removed == null) {
+            throw new JsonBuilderException("JSON Patch path not found: " + path);
+        }
+        if (container.node.isObject()) {
+            container.drop(name);
+        } else {
+            container.dropAll();
+        }
+        return removed;
+    }
+
+    private JsonNode get(String path) {
+        if (path.isEmpty()) {
+            return root;
+        }
+        int slash = path.lastIndexOf('/');
+        JsonNode node = childOf(parentOf(path, slash).node, unescape(path.substring(slash + 1)));
+        if (node == null) {
+            throw new JsonBuilderException("JSON Patch path not found: " + path);
+        }
+        return node;
+    }
+
+    /**
+     * Resolves the parent container of the given path through the cache.
+     *
+     * @param path  the path of the operation
+     * @param slash the index of the last '/' of the path
+     */
+    private Container parentOf(String path, int slash) {
+        Container container = resolve(path.substring(0, slash));
+        if (container == null || !container.node.isContainerNode()) {
+            throw new JsonBuilderException("JSON Patch path not found: " + path);
+        }
+        return container;
+    }
+
+    /**
+     * @return the cached container at the given pointer, resolving and caching it and its missing ancestors first,
+     * or null if there is no container at the pointer
+     */
+    private Container resolve(String pointer) {
+        Container container = containers.get(pointer);
+        if (container != null) {
+            return container;
+        }
+        int slash = pointer.lastIndexOf('/');
+        Container parent = resolve(pointer.substring(0, slash));
+        if (parent == null) {
+            return null;
+        }
+        String name = unescape(pointer.substring(slash + 1));
+        JsonNode node = childOf(parent.node, name);
+        if (node == null || !node.isContainerNode()) {
+            return null;
+        }
+        container = new Container(pointer, node);
+        parent.children.put(name, container);
+        containers.put(pointer, container);
+        return container;
+    }
+
+    private void setRoot(JsonNode value) {
+        root = value;
+        // every cached container belonged to the replaced document
+        containers.clear();
+        containers.put("", new Container("", value));
+    }
+
+    private static JsonNode childOf(JsonNode container, String name) {
+        if (container.isObject()) {
+            return container.get(name);
+        }
+        if (name.isEmpty() || name.length() > 9 || !name.chars().allMatch(Character::isDigit)
+                || name.length() > 1 && name.charAt(0) == '0') {
+            return null;
+        }
+        return container.get(Integer.parseInt(name));
+    }
+
+    private void setMember(ObjectNode object, String name, JsonNode value) {
+        JsonNode previous = object.replace(name, value);
+        undoLog.push(previous == null ? () -> object.remove(name) : () -> object.set(name, previous));
+    }
+
+    private JsonNode removeMember(ObjectNode object, String name) {
+        if (!object.has(name)) {
+            return null;
+        }
+        int position = 0;
+        for (Iterator<String> names = object.fieldNames(); !names.next().equals(name); ) {
+            position++;
+        }
+        JsonNode removed = object.remove(name);
+        int index = position;
+        undoLog.push(() -> insertMember(object, index, name, removed));
+        return removed;
+    }
+
+    private JsonNode removeElement(ArrayNode array, int index) {
+        if (index >= array.size()) {
+            return null;
+        }
+        JsonNode removed = array.remove(index);
+        undoLog.push(() -> array.insert(index, removed));
+        return removed;
+    }
+
+    private void replaceRoot(JsonNode value) {
+        JsonNode previous = root;
+        setRoot(value);
+        undoLog.push(() -> setRoot(previous));
+    }
+
+    /**
+     * Undoes all changes made so far, the last one first.
+     */
+    private void rollback() {
+        while (!undoLog.isEmpty()) {
+            undoLog.pop().run();
+        }
+    }
+
+    /**
+     * Puts a member back at its former position, moving the members after it behind it again.
+     */
+    private static void insertMember(ObjectNode object, int index, String name, JsonNode value) {
+        List<Map.Entry<String, JsonNode>> following = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        for (int i = 0; fields.hasNext(); i++) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (i >= index) {
+                following.add(Map.entry(field.getKey(), field.getValue()));
+            }
+        }
+        following.forEach(field -> object.remove(field.getKey()));
+        object.set(name, value);
+        following.forEach(field -> object.set(field.getKey(), field.getValue()));
+    }
+
+    private static String unescape(String segment) {
+        return segment.indexOf('~') < 0 ? segment : segment.replace("~1", "/").replace("~0", "~");
+    }
+
+    private static int parseIndex(String name, String path) {
+        if (name.isEmpty() || name.length() > 9 || !name.chars().allMatch(Character::isDigit)
+                || name.length() > 1 && name.charAt(0) == '0') {
+            throw new JsonBuilderException("Invalid JSON Patch array index: " + path);
+        }
+        return Integer.parseInt(name);
+    }
+
+    private static String requireText(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new JsonBuilderException("JSON Patch operation has no \"" + field + "\": " + operation);
+        }
+        String text = value.textValue();
+        if (!field.equals("op") && !text.isEmpty() && text.charAt(0) != '/') {
+            throw new JsonBuilderException("Invalid JSON Patch path: " + text);
+        }
+        return text;
+    }
+
+    private static JsonNode requireValue(JsonNode operation) {
+        JsonNode value = operation.get("value");
+        if (value == null) {
+            throw new JsonBuilderException("JSON Patch operation has no \"value\": " + operation);
+        }
+        return value.deepCopy();
+    }
+
+    /**
+     * A cached container of the document and the cached containers directly below it.
+     */
+    private final class Container {
+        private final String pointer;
+        private final JsonNode node;
+        private final Map<String, Container> children = new HashMap<>();
+
+        private Container(String pointer, JsonNode node) {
+            this.pointer = pointer;
+            this.node = node;
+        }
+
+        /**
+         * Drops the cached containers at and below the member with the given name.
+         */
+        private void drop(String name) {
+            Container child = children.remove(name);
+            if (child != null) {
+                child.forget();
+            }
+        }
+
+        /**
+         * Drops the cached containers below all members, e.g. after the elements of an array shifted.
+         */
+        private void dropAll() {
+            children.values().forEach(Container::forget);
+            children.clear();
+        }
+
+        private void forget() {
+            containers.remove(pointer);
+            dropAll();
+        }
+    }
+}
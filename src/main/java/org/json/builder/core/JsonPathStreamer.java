@@ -0,0 +1,123 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.SneakyThrows;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * Walks the token stream of a JSON document and reports the paths of its values in the format of
+ * {@link JsonBuilder#collectJsonPaths}, without building a tree. Only the current path and one entry
+ * per open object or array are kept in memory.
+ *
+ * <p>Like the tree walk, the streamer reports every scalar member of an object, but only the string elements of an
+ * array, and never an empty object or array. The reported value is the text {@link JsonNode#asText()}
+ * would return for the value.</p>
+ */
+final class JsonPathStreamer implements Closeable {
+
+    private final JsonParser parser;
+    private final StringBuilder path = new StringBuilder(128);
+    private boolean[] arrays = new boolean[16];
+    private int[] baseLengths = new int[16];
+    private int[] indexes = new int[16];
+    private int depth;
+    private String value;
+
+    JsonPathStreamer(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Moves to the next reported value.
+     *
+     * @return false if the document has no more values to report
+     */
+    @SneakyThrows
+    boolean advance() {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            switch (token) {
+                case FIELD_NAME -> {
+                    path.setLength(baseLengths[depth - 1]);
+                    if (path.length() > 0) path.append('.');
+                    path.append(parser.currentName());
+                }
+                case START_OBJECT, START_ARRAY -> {
+                    if (depth > 0 && arrays[depth - 1]) appendIndex();
+                    push(token == JsonToken.START_ARRAY);
+                }
+                case END_OBJECT, END_ARRAY -> depth--;
+                default -> {
+                    if (depth == 0) {
+                        continue;
+                    }
+                    if (arrays[depth - 1]) {
+                        appendIndex();
+                        if (token != JsonToken.VALUE_STRING) continue;
+                    }
+                    value = scalarText(token);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the path of the current value
+     */
+    String currentPath() {
+        return path.toString();
+    }
+
+    /**
+     * @return the text of the current value
+     */
+    String currentValue() {
+        return value;
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        parser.close();
+    }
+
+    private void appendIndex() {
+        path.setLength(baseLengths[depth - 1]);
+        path.append('[').append(indexes[depth - 1]++).append(']');
+    }
+
+    private void push(boolean array) {
+        if (depth == arrays.length) {
+            arrays = Arrays.copyOf(arrays, depth * 2);
+            baseLengths = Arrays.copyOf(baseLengths, depth * 2);
+            indexes = Arrays.copyOf(indexes, depth * 2);
+        }
+        arrays[depth] = array;
+        baseLengths[depth] = path.length();
+        indexes[depth] = 0;
+        depth++;
+    }
+
+    @SneakyThrows
+    private String scalarText(JsonToken token) {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_TRUE -> "true";
+            case VALUE_FALSE -> "false";
+            case VALUE_NULL -> "null";
+            case VALUE_NUMBER_INT -> switch (parser.getNumberType()) {
+                case INT -> Integer.toString(parser.getIntValue());
+                case LONG -> Long.toString(parser.getLongValue());
+                default -> JsonBuilder.MAPPER.<JsonNode>readTree(parser).asText();
+            };
+            // the text of a floating point number depends on the node type the mapper creates for it
+            default -> JsonBuilder.MAPPER.<JsonNode>readTree(parser).asText();
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the JSON paths of a document from {@link JsonBuilder#visitJsonPaths(JsonNode, JsonPathVisitor)}.
+ * The paths are in the format of {@link JsonBuilder#extractJsonPaths()} and are written into a single buffer
+ * that is reused for the whole walk, so a path is only valid during the call that receives it.
+ * Call {@code toString()} on it to keep it.
+ */
+@FunctionalInterface
+public interface JsonPathVisitor {
+
+    /**
+     * Called for every value {@link JsonBuilder#extractJsonPaths()} reports: each scalar member of an object and
+     * each string element of an array.
+     *
+     * @param path the path of the value
+     * @param leaf the value
+     */
+    void visitLeaf(CharSequence path, JsonNode leaf);
+
+    /**
+     * Called before the walk descends into a nested object or array.
+     *
+     * @param path      the path of the object or array
+     * @param container the object or array
+     * @return true to visit its members, false to skip the whole subtree
+     */
+    default boolean enterContainer(CharSequence path, JsonNode container) {
+        return true;
+    }
+}
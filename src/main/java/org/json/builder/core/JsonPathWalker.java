@@ -0,0 +1,60 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Walks a tree depth-first for a {@link JsonPathVisitor}, appending and truncating the segments of a single
+ * path buffer instead of concatenating a new string on every level.
+ */
+final class JsonPathWalker {
+
+    private final JsonPathVisitor visitor;
+    private final StringBuilder path;
+
+    private JsonPathWalker(JsonPathVisitor visitor, String parentPath) {
+        this.visitor = visitor;
+        this.path = new StringBuilder(Math.max(64, parentPath.length() * 2)).append(parentPath);
+    }
+
+    /**
+     * @param node       the node to walk
+     * @param parentPath the path of the node, prepended to every reported path
+     * @param visitor    the visitor to report to
+     */
+    static void walk(JsonNode node, String parentPath, JsonPathVisitor visitor) {
+        new JsonPathWalker(visitor, parentPath).walk(node);
+    }
+
+    private void walk(JsonNode node) {
+        int length = path.length();
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (length > 0) path.append('.');
+                path.append(field.getKey());
+                JsonNode child = field.getValue();
+                if (!child.isContainerNode()) {
+                    visitor.visitLeaf(path, child);
+                } else if (visitor.enterContainer(path, child)) {
+                    walk(child);
+                }
+                path.setLength(length);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                path.append('[').append(i).append(']');
+                JsonNode element = node.get(i);
+                if (element.isTextual()) {
+                    visitor.visitLeaf(path, element);
+                } else if (element.isContainerNode() && visitor.enterContainer(path, element)) {
+                    walk(element);
+                }
+                path.setLength(length);
+            }
+        }
+    }
+}
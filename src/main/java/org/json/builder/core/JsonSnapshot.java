@@ -0,0 +1,139 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of the JSON held by a builder, as of its last {@code build()}.
+ * A snapshot is never modified after it is created, so any number of threads can read it without locking,
+ * while other threads stage and build changes on the builder.
+ * Objects and arrays returned from a snapshot are copies, so changing them does not affect the snapshot;
+ * scalar nodes are immutable and are returned as they are.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * JsonObjectBuilder template = new JsonObjectBuilder();
+ * template.fromJsonFile("template.json").build();
+ *
+ * // on any request thread
+ * String city = template.snapshot().getNodeAt("address.city").asText();
+ * }</pre>
+ */
+public final class JsonSnapshot {
+
+    private final JsonNode root;
+
+    /**
+     * @param root a node that is owned by the snapshot and never modified afterwards
+     */
+    JsonSnapshot(JsonNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Retrieves the JSON node at the specified path.
+     *
+     * @param jsonNodePath the path of the JSON node to retrieve
+     * @return the JSON node at the specified path, or a missing node
+     */
+    public JsonNode getNodeAt(String jsonNodePath) {
+        return getNodeAt(CompiledPath.of(jsonNodePath));
+    }
+
+    /**
+     * Retrieves the JSON node at the specified compiled path.
+     *
+     * @param jsonNodePath the compiled path of the JSON node to retrieve
+     * @return the JSON node at the specified path, or a missing node; objects and arrays are copies
+     */
+    public JsonNode getNodeAt(CompiledPath jsonNodePath) {
+        return copyOf(root.at(jsonNodePath.toPointer()));
+    }
+
+    /**
+     * @return a copy of the whole JSON
+     */
+    public JsonNode toJsonNode() {
+        return root.deepCopy();
+    }
+
+    /**
+     * @return true if the JSON object or array has no members
+     */
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+
+    /**
+     * Transforms the JSON to a POJO of the specified class type.
+     *
+     * @param classType the class of the POJO
+     * @return the POJO
+     */
+    @SneakyThrows
+    public <T> T transformToPojo(Class<T> classType) {
+        return JsonCodecs.readerFor(classType).readValue(root);
+    }
+
+    /**
+     * Transforms the JSON node at the specified path to a POJO of the specified class type.
+     *
+     * @param jsonNodePath the path of the JSON node to transform
+     * @param classType    the class of the POJO
+     * @return the POJO
+     */
+    @SneakyThrows
+    public <T> T transformNodeToPojo(String jsonNodePath, Class<T> classType) {
+        return JsonCodecs.readerFor(classType).readValue(root.at(CompiledPath.of(jsonNodePath).toPointer()));
+    }
+
+    /**
+     * @return all JSON paths of the snapshot, in the format of {@link JsonBuilder#extractJsonPaths()}
+     */
+    public List<String> extractJsonPaths() {
+        return JsonBuilder.collectJsonPaths(root, StringUtils.EMPTY, new ArrayList<>());
+    }
+
+    /**
+     * @return all JSON paths of the snapshot with their values, in the format of {@link JsonBuilder#extractJsonPathValueMap()}
+     */
+    public Map<String, String> extractJsonPathValueMap() {
+        return JsonBuilder.collectJsonPathKeyValuePairs(root, StringUtils.EMPTY, new LinkedHashMap<>());
+    }
+
+    /**
+     * Writes the JSON to the given stream. The stream is flushed but not closed.
+     *
+     * @param outputStream the stream to write to
+     * @param pretty       true to pretty-print the JSON, false to write it compactly
+     */
+    public void writeTo(OutputStream outputStream, boolean pretty) {
+        JsonBuilder.writeJsonNode(root, outputStream, pretty);
+    }
+
+    /**
+     * @return the pretty-printed JSON
+     */
+    public String toPrettyString() {
+        return root.toPrettyString();
+    }
+
+    /**
+     * @return the compact JSON
+     */
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    private static JsonNode copyOf(JsonNode node) {
+        return node.isContainerNode() ? node.deepCopy() : node;
+    }
+}
@@ -0,0 +1,283 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.SneakyThrows;
+import org.json.builder.exception.JsonBuilderException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A JSON template compiled once into pre-serialized byte fragments and value slots, for the
+ * "take a template, set a few fields, emit" use case. Rendering writes the fragments and the encoded slot values
+ * in turn, so it parses nothing, builds no tree and resolves no paths.
+ *
+ * <p>A slot is either a string value that is exactly a placeholder such as {@code "${orderId}"}, or a path given
+ * at compile time such as {@code order.items[0].price}. Placeholders must be given a value when rendering;
+ * path slots, keyed by their path, keep the value of the template when no value is given.
+ * Values are encoded by their Java type: strings as JSON strings, numbers and booleans as such,
+ * {@link JsonNode}s as they are, and any other object through {@link JsonCodecs}.
+ * The output is compact JSON. Instances are immutable and can be shared between threads.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * JsonTemplate template = JsonTemplate.compile(Path.of("order-template.json"));
+ * String json = template.render(Map.of("orderId", "A-1001", "quantity", 3));
+ * }</pre>
+ */
+public final class JsonTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("^\\$\\{([^}]+)}$");
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final byte[][] fragments;
+    private final Slot[] slots;
+    private final int estimatedSize;
+
+    private JsonTemplate(byte[][] fragments, Slot[] slots) {
+        this.fragments = fragments;
+        this.slots = slots;
+        int size = 0;
+        for (byte[] fragment : fragments) size += fragment.length;
+        this.estimatedSize = size + 16 * slots.length;
+    }
+
+    /**
+     * Compiles the template file, with a slot for every {@code ${name}} placeholder.
+     *
+     * @param templateFile the JSON template file
+     * @return the compiled template
+     */
+    public static JsonTemplate compile(Path templateFile) {
+        return compile(JsonBuilder.readJsonNode(templateFile, ReadMode.STANDARD), List.of());
+    }
+
+    /**
+     * Compiles the template, with a slot for every {@code ${name}} placeholder.
+     *
+     * @param template the JSON template; it is not modified
+     * @return the compiled template
+     */
+    public static JsonTemplate compile(JsonNode template) {
+        return compile(template, List.of());
+    }
+
+    /**
+     * Compiles the template, with a slot for every {@code ${name}} placeholder and for every given path.
+     * A path given more than once gets a single slot.
+     *
+     * @param template  the JSON template; it is not modified
+     * @param slotPaths the paths of the values to turn into slots, e.g. {@code order.items[0].price}
+     * @return the compiled template
+     * @throws JsonBuilderException if one of the paths does not exist in the template, or if two paths point to the
+     *                              same node or one path points into the value of another
+     */
+    @SneakyThrows
+    public static JsonTemplate compile(JsonNode template, Collection<String> slotPaths) {
+        JsonNode skeleton = template.deepCopy();
+        String marker = "__json_template_slot_" + UUID.randomUUID().toString().replace("-", "") + "_";
+        List<Slot> slots = new ArrayList<>();
+
+        for (String slotPath : distinctSlotPaths(slotPaths)) {
+            CompiledPath path = CompiledPath.of(slotPath);
+            JsonNode original = skeleton.at(path.toPointer());
+            if (path.isRoot() || original.isMissingNode()) {
+                throw new JsonBuilderException("Template path not found: " + slotPath);
+            }
+            List<CompiledPath.Segment> segments = path.getSegments();
+            JsonNode parent = segments.size() == 1 ? skeleton : skeleton.at(path.toPointer().head());
+            PathTrie.setChild(parent, segments.get(segments.size() - 1), TextNode.valueOf(marker + slots.size()));
+            slots.add(new Slot(slotPath, JsonBuilder.MAPPER.writeValueAsBytes(original)));
+        }
+        replacePlaceholders(skeleton, marker, slots);
+
+        return split(JsonBuilder.MAPPER.writeValueAsBytes(skeleton), marker, slots);
+    }
+
+    /**
+     * Removes repeated paths and rejects paths that point to the same node or into the value of another path,
+     * because the value of such a path is replaced by the slot of the other one.
+     */
+    private static Collection<String> distinctSlotPaths(Collection<String> slotPaths) {
+        Map<String, String> pathsByPointer = new HashMap<>();
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String slotPath : slotPaths) {
+            if (!distinct.add(slotPath)) {
+                continue;
+            }
+            String pointer = CompiledPath.of(slotPath).toPointer().toString();
+            String other = pathsByPointer.putIfAbsent(pointer, slotPath);
+            if (other != null) {
+                throw new JsonBuilderException("Template slot paths overlap: " + other + ", " + slotPath);
+            }
+        }
+        for (Map.Entry<String, String> entry : pathsByPointer.entrySet()) {
+            String pointer = entry.getKey();
+            for (int slash = pointer.lastIndexOf('/'); slash > 0; slash = pointer.lastIndexOf('/', slash - 1)) {
+                String outer = pathsByPointer.get(pointer.substring(0, slash));
+                if (outer != null) {
+                    throw new JsonBuilderException("Template slot paths overlap: " + outer + ", " + entry.getValue());
+                }
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * @return the names of the slots in the order they appear in the output; a name can occur more than once
+     */
+    public List<String> getSlotNames() {
+        List<String> names = new ArrayList<>(slots.length);
+        for (Slot slot : slots) names.add(slot.name);
+        return names;
+    }
+
+    /**
+     * Renders the template with the given values.
+     *
+     * @param values the slot values, keyed by placeholder name or slot path
+     * @return the JSON string
+     * @throws JsonBuilderException if a placeholder has no value
+     */
+    public String render(Map<String, ?> values) {
+        return new String(renderToBytes(values), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders the template with the given values as UTF-8 encoded bytes.
+     *
+     * @param values the slot values, keyed by placeholder name or slot path
+     * @return the JSON bytes
+     * @throws JsonBuilderException if a placeholder has no value
+     */
+    public byte[] renderToBytes(Map<String, ?> values) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(estimatedSize);
+        render(values, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Renders the template with the given values to the stream. The stream is not closed.
+     *
+     * @param values       the slot values, keyed by placeholder name or slot path
+     * @param outputStream the stream to write the UTF-8 encoded JSON to
+     * @throws JsonBuilderException if a placeholder has no value
+     */
+    @SneakyThrows
+    public void render(Map<String, ?> values, OutputStream outputStream) {
+        for (int i = 0; i < slots.length; i++) {
+            outputStream.write(fragments[i]);
+            Slot slot = slots[i];
+            if (values.containsKey(slot.name)) {
+                writeValue(values.get(slot.name), outputStream);
+            } else if (slot.defaultValue != null) {
+                outputStream.write(slot.defaultValue);
+            } else {
+                throw new JsonBuilderException("Missing template variable: " + slot.name);
+            }
+        }
+        outputStream.write(fragments[slots.length]);
+    }
+
+    @SneakyThrows
+    private static void writeValue(Object value, OutputStream outputStream) {
+        if (value == null) {
+            outputStream.write(NULL);
+        } else if (value instanceof CharSequence text) {
+            outputStream.write('"');
+            outputStream.write(JsonStringEncoder.getInstance().quoteAsUTF8(text.toString()));
+            outputStream.write('"');
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || value instanceof BigDecimal || value instanceof Boolean) {
+            outputStream.write(value.toString().getBytes(StandardCharsets.US_ASCII));
+        } else if (value instanceof JsonNode node) {
+            JsonBuilder.writeJsonNode(node, outputStream, false);
+        } else {
+            JsonCodecs.writer().writeValue(outputStream, value);
+        }
+    }
+
+    private static void replacePlaceholders(JsonNode node, String marker, List<Slot> slots) {
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode replacement = placeholderSlot(field.getValue(), marker, slots);
+                if (replacement != null) field.setValue(replacement);
+                else replacePlaceholders(field.getValue(), marker, slots);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode replacement = placeholderSlot(node.get(i), marker, slots);
+                if (replacement != null) ((ArrayNode) node).set(i, replacement);
+                else replacePlaceholders(node.get(i), marker, slots);
+            }
+        }
+    }
+
+    private static JsonNode placeholderSlot(JsonNode node, String marker, List<Slot> slots) {
+        if (!node.isTextual()) return null;
+        Matcher matcher = PLACEHOLDER.matcher(node.textValue());
+        if (!matcher.matches()) return null;
+        slots.add(new Slot(matcher.group(1), null));
+        return TextNode.valueOf(marker + (slots.size() - 1));
+    }
+
+    /**
+     * Cuts the serialized skeleton at every marker. Markers are found in document order,
+     * so the slots are reordered to match the fragments between them.
+     */
+    private static JsonTemplate split(byte[] serialized, String marker, List<Slot> slots) {
+        byte[] quotedMarker = ('"' + marker).getBytes(StandardCharsets.US_ASCII);
+        List<byte[]> fragments = new ArrayList<>();
+        List<Slot> orderedSlots = new ArrayList<>();
+        int fragmentStart = 0;
+        int position = indexOf(serialized, quotedMarker, 0);
+        while (position >= 0) {
+            int indexStart = position + quotedMarker.length;
+            int indexEnd = indexStart;
+            while (serialized[indexEnd] != '"') indexEnd++;
+            int slotIndex = Integer.parseInt(new String(serialized, indexStart, indexEnd - indexStart, StandardCharsets.US_ASCII));
+            fragments.add(Arrays.copyOfRange(serialized, fragmentStart, position));
+            orderedSlots.add(slots.get(slotIndex));
+            fragmentStart = indexEnd + 1;
+            position = indexOf(serialized, quotedMarker, fragmentStart);
+        }
+        fragments.add(Arrays.copyOfRange(serialized, fragmentStart, serialized.length));
+        return new JsonTemplate(fragments.toArray(new byte[0][]), orderedSlots.toArray(new Slot[0]));
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * A value slot of the template.
+     */
+    private static final class Slot {
+        private final String name;
+        private final byte[] defaultValue;
+
+        private Slot(String name, byte[] defaultValue) {
+            this.name = name;
+            this.defaultValue = defaultValue;
+        }
+    }
+}
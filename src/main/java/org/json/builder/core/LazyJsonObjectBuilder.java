@@ -0,0 +1,807 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
+import org.json.builder.exception.JsonBuilderException;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A JSON object builder for large templates that receive only a few edits.
+ * Instead of parsing the whole document into a tree, it keeps the source bytes and records the byte range of each
+ * member of an object or array the first time a path walks through it. Only the subtrees touched by
+ * {@code update}, {@code remove} and {@code getNodeAt} are inflated into {@link JsonNode}s, and
+ * {@code writeTo(..., false)} copies every untouched byte range straight from the source to the output.
+ * Latency and allocation therefore follow the size of the edits rather than the size of the document.
+ *
+ * <p>Untouched parts keep the formatting of the source; the edited parts are written compactly.
+ * The pretty-printing variants of {@code writeTo}, {@code toPrettyString()}, {@code buildAsJsonNode()} and the
+ * path extraction methods need the full tree, so they parse the complete document.
+ * Content that is never walked through is not validated until it is parsed.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * LazyJsonObjectBuilder builder = new LazyJsonObjectBuilder();
+ * builder.fromJsonFile("big-template.json")
+ *        .update("order.id", "A-1001")
+ *        .remove("order.discount")
+ *        .writeTo(Path.of("order.json"), false);
+ * }</pre>
+ */
+public class LazyJsonObjectBuilder implements JsonBuilder {
+
+    private static final byte[] EMPTY_OBJECT = {'{', '}'};
+
+    private final Map<CompiledPath, JsonNode> jsonPathValueMapToAppend = new LinkedHashMap<>();
+    private final Set<CompiledPath> jsonPathsToRemove = new LinkedHashSet<>();
+    private byte[] source = EMPTY_OBJECT;
+    private Object root = new Span(0, EMPTY_OBJECT.length);
+    private volatile JsonSnapshot snapshot;
+
+    @Override
+    @SneakyThrows
+    public synchronized LazyJsonObjectBuilder fromJsonFile(String jsonFileName) {
+        validateFileName(jsonFileName);
+        load(Files.readAllBytes(Paths.get(jsonFileName)));
+        return this;
+    }
+
+    @Override
+    @SneakyThrows
+    public synchronized LazyJsonObjectBuilder fromJsonFile(File jsonFile) {
+        validateFile(jsonFile);
+        load(Files.readAllBytes(jsonFile.toPath()));
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder fromJsonString(String json) {
+        validateJsonString(json);
+        load(json.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /**
+     * Build JSON data from a copy of the given byte range, so later changes to the array do not affect the builder.
+     */
+    @Override
+    public synchronized LazyJsonObjectBuilder fromBytes(byte[] json, int offset, int length) {
+        validateBytes(json, length);
+        load(Arrays.copyOfRange(json, offset, offset + length));
+        return this;
+    }
+
+    @Override
+    @SneakyThrows
+    public synchronized LazyJsonObjectBuilder fromInputStream(InputStream inputStream) {
+        validateInputStream(inputStream);
+        try (inputStream) {
+            load(inputStream.readAllBytes());
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder fromByteBuffer(ByteBuffer buffer) {
+        validateByteBuffer(buffer);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        load(bytes);
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder fromPath(Path jsonFile) {
+        return fromPath(jsonFile, ReadMode.STANDARD);
+    }
+
+    /**
+     * Build JSON data by reading from a json-file. The source bytes are kept on the heap in both read modes,
+     * because the untouched byte ranges are copied from them on write.
+     */
+    @Override
+    @SneakyThrows
+    public synchronized LazyJsonObjectBuilder fromPath(Path jsonFile, ReadMode readMode) {
+        if (!Files.isRegularFile(jsonFile)) {
+            throw new JsonBuilderException("Invalid file.");
+        }
+        load(Files.readAllBytes(jsonFile));
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder fromEmptyNode() {
+        load(EMPTY_OBJECT);
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder update(String jsonNodePath, Object value, NodeType dataTypeOfValue) {
+        return update(CompiledPath.of(jsonNodePath), value, dataTypeOfValue);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder update(String jsonNodePath, Object value) {
+        return update(jsonNodePath, value, NodeType.STRING);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder update(CompiledPath jsonNodePath, Object value, NodeType dataTypeOfValue) {
+        if (JsonBuilder.isNotSkippable(value)) {
+            jsonPathValueMapToAppend.put(jsonNodePath, JsonBuilder.convertValueOfRequiredDataType(value, dataTypeOfValue));
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder update(CompiledPath jsonNodePath, Object value) {
+        return update(jsonNodePath, value, NodeType.STRING);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateLong(String jsonNodePath, long value) {
+        return updateLong(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateDouble(String jsonNodePath, double value) {
+        return updateDouble(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateBoolean(String jsonNodePath, boolean value) {
+        return updateBoolean(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateDecimal(String jsonNodePath, BigDecimal value) {
+        return updateDecimal(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateNode(String jsonNodePath, JsonNode value) {
+        return updateNode(CompiledPath.of(jsonNodePath), value);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateLong(CompiledPath jsonNodePath, long value) {
+        return updateNode(jsonNodePath, LongNode.valueOf(value));
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateDouble(CompiledPath jsonNodePath, double value) {
+        return updateNode(jsonNodePath, JsonBuilder.doubleNode(value));
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateBoolean(CompiledPath jsonNodePath, boolean value) {
+        return updateNode(jsonNodePath, BooleanNode.valueOf(value));
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateDecimal(CompiledPath jsonNodePath, BigDecimal value) {
+        return updateNode(jsonNodePath, value == null ? NullNode.getInstance() : DecimalNode.valueOf(value));
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateNode(CompiledPath jsonNodePath, JsonNode value) {
+        jsonPathValueMapToAppend.put(jsonNodePath, value == null ? NullNode.getInstance() : value.deepCopy());
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder updateArrayNodeIf(Predicate<JsonNode> condition, String arrayNodePath, String key, String newValue) {
+        updateNodeIf(condition, arrayNodePath, key, newValue);
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder remove(String jsonNodePath) {
+        return remove(CompiledPath.of(jsonNodePath));
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder remove(CompiledPath jsonNodePath) {
+        jsonPathsToRemove.add(jsonNodePath);
+        return this;
+    }
+
+    /**
+     * Applies the pending updates and removals. Only the objects and arrays on the paths of the changes are indexed,
+     * and only the nodes below an edited parent are inflated.
+     */
+    @Override
+    public synchronized LazyJsonObjectBuilder build() {
+        jsonPathValueMapToAppend.forEach(this::applyUpdate);
+        jsonPathValueMapToAppend.clear();
+        jsonPathsToRemove.forEach(this::applyRemoval);
+        jsonPathsToRemove.clear();
+        snapshot = null;
+        return this;
+    }
+
+    /**
+     * Applies a JSON Patch like {@link JsonObjectBuilder#applyPatch(JsonNode)}. The document is parsed completely
+     * first, so from then on the builder works on the tree.
+     */
+    @Override
+    public synchronized LazyJsonObjectBuilder applyPatch(JsonNode patch) {
+        setPatchedRoot(JsonPatches.applyPatch(buildAsJsonNode(), patch));
+        return this;
+    }
+
+    /**
+     * Applies a JSON Merge Patch like {@link JsonObjectBuilder#applyMergePatch(JsonNode)}. The document is parsed
+     * completely first, so from then on the builder works on the tree.
+     */
+    @Override
+    public synchronized LazyJsonObjectBuilder applyMergePatch(JsonNode mergePatch) {
+        setPatchedRoot(JsonPatches.applyMergePatch(buildAsJsonNode(), mergePatch));
+        return this;
+    }
+
+    private void setPatchedRoot(JsonNode patchedRoot) {
+        if (!patchedRoot.isObject()) {
+            throw new JsonBuilderException("Root node is not a JSON object.");
+        }
+        root = patchedRoot;
+        snapshot = null;
+    }
+
+    @Override
+    public synchronized String toPrettyString() {
+        build();
+        return toJsonNode(root).toPrettyString();
+    }
+
+    /**
+     * Builds the JSON object and parses it completely. From then on the builder works on the returned tree.
+     */
+    @Override
+    public synchronized JsonNode buildAsJsonNode() {
+        build();
+        JsonNode rootNode = toJsonNode(root);
+        root = rootNode;
+        return rootNode;
+    }
+
+    /**
+     * Returns an immutable snapshot of the JSON object as of the last {@link #build()}.
+     * Creating it parses the whole document once; it is then shared until the next change.
+     */
+    @Override
+    public JsonSnapshot snapshot() {
+        JsonSnapshot current = snapshot;
+        return current != null ? current : publishSnapshot();
+    }
+
+    private synchronized JsonSnapshot publishSnapshot() {
+        if (snapshot == null) {
+            snapshot = new JsonSnapshot(toJsonNode(root).deepCopy());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Creates a fork like {@link JsonObjectBuilder#fork()}. Pending updates and removals are built first.
+     * The fork shares the source bytes with this builder, so the untouched parts of the document are never copied;
+     * only the members indexed or inflated so far are. Once the document has been parsed completely, e.g. by
+     * {@link #buildAsJsonNode()}, forking copies the whole tree.
+     */
+    @Override
+    public synchronized LazyJsonObjectBuilder fork() {
+        build();
+        LazyJsonObjectBuilder fork = new LazyJsonObjectBuilder();
+        fork.source = source;
+        fork.root = copySlot(root);
+        fork.snapshot = snapshot;
+        return fork;
+    }
+
+    @Override
+    public synchronized JsonNode getNodeAt(String jsonNodePath) {
+        return getNodeAt(CompiledPath.of(jsonNodePath));
+    }
+
+    /**
+     * Retrieves the JSON node at the specified compiled path. The node is inflated from the source bytes
+     * and kept, so changes made to the returned node are part of the written output.
+     */
+    @Override
+    public synchronized JsonNode getNodeAt(CompiledPath jsonNodePath) {
+        List<CompiledPath.Segment> segments = jsonNodePath.getSegments();
+        if (segments.isEmpty()) {
+            return buildAsJsonNode();
+        }
+        Object container = rootContainer();
+        JsonPointer remaining = jsonNodePath.toPointer();
+        for (int i = 0; i < segments.size(); i++, remaining = remaining.tail()) {
+            if (container instanceof JsonNode node) {
+                return node.at(remaining);
+            }
+            LazyContainer lazyContainer = (LazyContainer) container;
+            Object child = lazyContainer.get(segments.get(i));
+            if (child == null) {
+                return MissingNode.getInstance();
+            }
+            if (i == segments.size() - 1) {
+                JsonNode node = toJsonNode(child);
+                lazyContainer.put(segments.get(i), node);
+                return node;
+            }
+            if (isScalar(child)) {
+                return MissingNode.getInstance();
+            }
+            container = expand(lazyContainer, segments.get(i), child);
+        }
+        return MissingNode.getInstance();
+    }
+
+    @Override
+    public synchronized void clean() {
+        load(EMPTY_OBJECT);
+        jsonPathValueMapToAppend.clear();
+        jsonPathsToRemove.clear();
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder writeTo(String filePath) {
+        return writeTo(Paths.get(filePath));
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder writeTo(Path filePath) {
+        return writeTo(filePath, true);
+    }
+
+    @Override
+    @SneakyThrows
+    public synchronized LazyJsonObjectBuilder writeTo(Path filePath, boolean pretty) {
+        try (OutputStream outputStream = Files.newOutputStream(filePath)) {
+            return writeTo(outputStream, pretty);
+        }
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder writeTo(OutputStream outputStream) {
+        return writeTo(outputStream, true);
+    }
+
+    /**
+     * Writes the JSON object to the given stream. With {@code pretty} set to false the untouched byte ranges
+     * of the source are copied verbatim and only the edited parts are serialized.
+     * With {@code pretty} set to true the whole document is parsed and pretty-printed.
+     * The stream is flushed but not closed.
+     */
+    @Override
+    @SneakyThrows
+    public synchronized LazyJsonObjectBuilder writeTo(OutputStream outputStream, boolean pretty) {
+        build();
+        if (pretty) {
+            JsonBuilder.writeJsonNode(toJsonNode(root), outputStream, true);
+        } else {
+            BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+            writeSlot(root, bufferedOutputStream);
+            bufferedOutputStream.flush();
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder writeTo(WritableByteChannel channel) {
+        return writeTo(channel, true);
+    }
+
+    @Override
+    public synchronized LazyJsonObjectBuilder writeTo(WritableByteChannel channel, boolean pretty) {
+        return writeTo(Channels.newOutputStream(channel), pretty);
+    }
+
+    @Override
+    public synchronized boolean isBuilderEmpty() {
+        Object container = rootContainer();
+        if (container instanceof JsonNode node) {
+            return node.isEmpty();
+        }
+        return ((LazyContainer) container).size() == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    public synchronized <T> T transformToPojo(Class<?> classType) {
+        if (root instanceof Span span) {
+            return (T) MAPPER.readValue(source, span.start(), span.length(), classType);
+        }
+        return (T) MAPPER.treeToValue(toJsonNode(root), classType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    public synchronized <T> T transformNodeToPojo(String jsonNodePath, Class<?> classType) {
+        return (T) MAPPER.treeToValue(getNodeAt(jsonNodePath), classType);
+    }
+
+    @Override
+    public synchronized List<String> extractJsonPaths() {
+        return JsonBuilder.collectJsonPaths(toJsonNode(root), StringUtils.EMPTY, new ArrayList<>());
+    }
+
+    @Override
+    public synchronized Map<String, String> extractJsonPathValueMap() {
+        return JsonBuilder.collectJsonPathKeyValuePairs(toJsonNode(root), StringUtils.EMPTY, new LinkedHashMap<>());
+    }
+
+    private void load(byte[] bytes) {
+        int start = 0;
+        int end = bytes.length;
+        while (start < end && isWhitespace(bytes[start])) start++;
+        while (end > start && isWhitespace(bytes[end - 1])) end--;
+        if (start == end || bytes[start] != '{') {
+            throw new JsonBuilderException("Root node is not a JSON object.");
+        }
+        this.source = bytes;
+        this.root = new Span(start, end);
+        this.snapshot = null;
+    }
+
+    private void applyUpdate(CompiledPath path, JsonNode value) {
+        List<CompiledPath.Segment> segments = path.getSegments();
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Invalid JSON node path: the root node cannot be updated or removed.");
+        }
+        Object container = rootContainer();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (container instanceof JsonNode node) {
+                PathTrie.setValue(node, segments.subList(i, segments.size()), value);
+                return;
+            }
+            LazyContainer lazyContainer = (LazyContainer) container;
+            Object child = lazyContainer.get(segments.get(i));
+            if (isMissingOrNull(child)) {
+                JsonNode created = StringUtils.isNumeric(segments.get(i + 1).name()) ? MAPPER.createArrayNode() : MAPPER.createObjectNode();
+                lazyContainer.put(segments.get(i), created);
+                container = created;
+            } else if (isScalar(child)) {
+                throw new IllegalArgumentException("Invalid parent node type for field: " + segments.get(i + 1).name());
+            } else {
+                container = expand(lazyContainer, segments.get(i), child);
+            }
+        }
+        CompiledPath.Segment last = segments.get(segments.size() - 1);
+        if (container instanceof JsonNode node) {
+            PathTrie.setChild(node, last, value);
+        } else {
+            ((LazyContainer) container).put(last, value);
+        }
+    }
+
+    private void applyRemoval(CompiledPath path) {
+        List<CompiledPath.Segment> segments = path.getSegments();
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Invalid JSON node path: the root node cannot be updated or removed.");
+        }
+        Object container = rootContainer();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (container instanceof JsonNode node) {
+                PathTrie.removeValue(node, segments.subList(i, segments.size()));
+                return;
+            }
+            LazyContainer lazyContainer = (LazyContainer) container;
+            Object child = lazyContainer.get(segments.get(i));
+            if (isMissingOrNull(child)) {
+                return;
+            }
+            if (isScalar(child)) {
+                if (i == segments.size() - 2) {
+                    throw new IllegalArgumentException("Invalid parent node type for field: " + segments.get(i + 1).name());
+                }
+                return;
+            }
+            container = expand(lazyContainer, segments.get(i), child);
+        }
+        CompiledPath.Segment last = segments.get(segments.size() - 1);
+        if (container instanceof JsonNode node) {
+            PathTrie.removeChild(node, last);
+        } else {
+            ((LazyContainer) container).remove(last);
+        }
+    }
+
+    private Object rootContainer() {
+        if (root instanceof Span span) {
+            root = index(span);
+        }
+        return root;
+    }
+
+    private Object expand(LazyContainer parent, CompiledPath.Segment segment, Object child) {
+        if (child instanceof Span span) {
+            LazyContainer indexed = index(span);
+            parent.put(segment, indexed);
+            return indexed;
+        }
+        return child;
+    }
+
+    @SneakyThrows
+    private LazyContainer index(Span span) {
+        try (JsonParser parser = MAPPER.getFactory().createParser(source, span.start(), span.length())) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                LazyContainer container = new LazyContainer(false);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int nameStart = span.start() + (int) parser.getTokenLocation().getByteOffset();
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    container.fields.put(name, new Entry(nameStart, skipValue(parser, span.start())));
+                }
+                return container;
+            }
+            LazyContainer container = new LazyContainer(true);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                container.elements.add(skipValue(parser, span.start()));
+            }
+            return container;
+        }
+    }
+
+    @SneakyThrows
+    private Span skipValue(JsonParser parser, int base) {
+        int start = base + (int) parser.getTokenLocation().getByteOffset();
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+        } else {
+            parser.finishToken();
+        }
+        return new Span(start, base + (int) parser.getCurrentLocation().getByteOffset());
+    }
+
+    @SneakyThrows
+    private JsonNode toJsonNode(Object slot) {
+        if (slot instanceof JsonNode node) {
+            return node;
+        }
+        if (slot instanceof Span span) {
+            return MAPPER.readTree(source, span.start(), span.length());
+        }
+        LazyContainer container = (LazyContainer) slot;
+        if (container.array) {
+            ArrayNode arrayNode = MAPPER.createArrayNode();
+            container.elements.forEach(element -> arrayNode.add(toJsonNode(element)));
+            return arrayNode;
+        }
+        ObjectNode objectNode = MAPPER.createObjectNode();
+        container.fields.forEach((name, entry) -> objectNode.set(name, toJsonNode(entry.value)));
+        return objectNode;
+    }
+
+    @SneakyThrows
+    private void writeSlot(Object slot, OutputStream outputStream) {
+        if (slot instanceof Span span) {
+            outputStream.write(source, span.start(), span.length());
+        } else if (slot instanceof JsonNode node) {
+            JsonBuilder.writeJsonNode(node, outputStream, false);
+        } else {
+            LazyContainer container = (LazyContainer) slot;
+            if (container.array) {
+                outputStream.write('[');
+                for (int i = 0; i < container.elements.size(); i++) {
+                    if (i > 0) outputStream.write(',');
+                    writeSlot(container.elements.get(i), outputStream);
+                }
+                outputStream.write(']');
+            } else {
+                outputStream.write('{');
+                boolean first = true;
+                for (Map.Entry<String, Entry> field : container.fields.entrySet()) {
+                    if (!first) outputStream.write(',');
+                    first = false;
+                    Entry entry = field.getValue();
+                    if (entry.value instanceof Span span && entry.nameStart >= 0) {
+                        // untouched member: copy the name, the separator and the value as they are in the source
+                        outputStream.write(source, entry.nameStart, span.end() - entry.nameStart);
+                    } else {
+                        outputStream.write('"');
+                        outputStream.write(JsonStringEncoder.getInstance().quoteAsUTF8(field.getKey()));
+                        outputStream.write('"');
+                        outputStream.write(':');
+                        writeSlot(entry.value, outputStream);
+                    }
+                }
+                outputStream.write('}');
+            }
+        }
+    }
+
+    private boolean isMissingOrNull(Object slot) {
+        if (slot == null) return true;
+        if (slot instanceof Span span) return source[span.start()] == 'n';
+        if (slot instanceof JsonNode node) return node.isMissingNode() || node.isNull();
+        return false;
+    }
+
+    private boolean isScalar(Object slot) {
+        if (slot instanceof Span span) return source[span.start()] != '{' && source[span.start()] != '[';
+        if (slot instanceof JsonNode node) return !node.isContainerNode();
+        return false;
+    }
+
+    private static Object copySlot(Object slot) {
+        if (slot instanceof LazyContainer container) {
+            return container.copy();
+        }
+        if (slot instanceof JsonNode node) {
+            return node.deepCopy();
+        }
+        // a span only points into the source, which is never changed
+        return slot;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private void updateNodeIf(Predicate<JsonNode> condition, String nodePath, String targetNodePath, String newValue) {
+        JsonNode node = getNodeAt(nodePath);
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                if (condition.test(node.get(i))) {
+                    update(nodePath + "[" + i + "]." + targetNodePath, newValue);
+                }
+            }
+        } else if (node.isObject()) {
+            if (condition.test(node)) {
+                update(nodePath + "." + targetNodePath, newValue);
+            }
+        } else {
+            throw new JsonBuilderException("Invalid node type for path: " + nodePath);
+        }
+    }
+
+    private void validateFileName(String fileName) {
+        if (fileName.isBlank()) {
+            throw new JsonBuilderException("File name is blank.");
+        }
+    }
+
+    private void validateFile(File file) {
+        if (!file.exists() || !file.isFile()) {
+            throw new JsonBuilderException("Invalid file.");
+        }
+    }
+
+    private void validateJsonString(String json) {
+        if (Objects.isNull(json) || json.isBlank()) {
+            throw new JsonBuilderException("Invalid JSON string.");
+        }
+    }
+
+    private void validateBytes(byte[] json, int length) {
+        if (Objects.isNull(json) || length <= 0) {
+            throw new JsonBuilderException("Invalid JSON bytes.");
+        }
+    }
+
+    private void validateInputStream(InputStream inputStream) {
+        if (Objects.isNull(inputStream)) {
+            throw new JsonBuilderException("Invalid JSON stream.");
+        }
+    }
+
+    private void validateByteBuffer(ByteBuffer buffer) {
+        if (Objects.isNull(buffer) || !buffer.hasRemaining()) {
+            throw new JsonBuilderException("Invalid JSON buffer.");
+        }
+    }
+
+    /**
+     * A byte range of the source holding one JSON value.
+     */
+    private record Span(int start, int end) {
+        int length() {
+            return end - start;
+        }
+    }
+
+    /**
+     * A member of an indexed object. {@code nameStart} points at the field name in the source,
+     * or is -1 for members added by an update.
+     */
+    private static final class Entry {
+        private final int nameStart;
+        private Object value;
+
+        private Entry(int nameStart, Object value) {
+            this.nameStart = nameStart;
+            this.value = value;
+        }
+    }
+
+    /**
+     * An object or array whose direct members are indexed. Each member is a {@link Span} while untouched,
+     * a nested {@link LazyContainer} once a path walks through it, or a {@link JsonNode} once it is inflated or replaced.
+     */
+    private static final class LazyContainer {
+        private final boolean array;
+        private final Map<String, Entry> fields = new LinkedHashMap<>();
+        private final List<Object> elements = new ArrayList<>();
+
+        private LazyContainer(boolean array) {
+            this.array = array;
+        }
+
+        private int size() {
+            return array ? elements.size() : fields.size();
+        }
+
+        private LazyContainer copy() {
+            LazyContainer copy = new LazyContainer(array);
+            fields.forEach((name, entry) -> copy.fields.put(name, new Entry(entry.nameStart, copySlot(entry.value))));
+            elements.forEach(element -> copy.elements.add(copySlot(element)));
+            return copy;
+        }
+
+        private Object get(CompiledPath.Segment segment) {
+            if (array) {
+                return segment.isIndex() && segment.index() < elements.size() ? elements.get(segment.index()) : null;
+            }
+            Entry entry = fields.get(segment.name());
+            return entry == null ? null : entry.value;
+        }
+
+        private void put(CompiledPath.Segment segment, Object value) {
+            if (array) {
+                int index = Integer.parseInt(segment.name());
+                for (int i = elements.size(); i <= index; i++) {
+                    elements.add(MAPPER.createObjectNode());
+                }
+                elements.set(index, value);
+            } else {
+                Entry entry = fields.get(segment.name());
+                if (entry == null) {
+                    fields.put(segment.name(), new Entry(-1, value));
+                } else {
+                    entry.value = value;
+                }
+            }
+        }
+
+        private void remove(CompiledPath.Segment segment) {
+            if (array) {
+                int index = Integer.parseInt(segment.name());
+                if (index < elements.size()) {
+                    elements.remove(index);
+                }
+            } else {
+                fields.remove(segment.name());
+            }
+        }
+    }
+}
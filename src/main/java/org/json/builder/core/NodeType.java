@@ -2,6 +2,10 @@ package org.json.builder.core;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 @Getter
 public enum NodeType {
     NUMBER("Number"),
@@ -24,6 +28,16 @@ public enum NodeType {
     SKIP("Skip"),
     IGNORE("Ignore");
 
+    private static final Map<String, NodeType> BY_TYPE = new HashMap<>();
+    private static final Map<String, NodeType> BY_LOWER_CASE_TYPE = new HashMap<>();
+
+    static {
+        for (NodeType nodeType : values()) {
+            BY_TYPE.put(nodeType.type, nodeType);
+            BY_LOWER_CASE_TYPE.put(nodeType.type.toLowerCase(Locale.ROOT), nodeType);
+        }
+    }
+
     private final String type;
 
     NodeType(String type) {
@@ -31,12 +45,15 @@ public enum NodeType {
     }
 
     public static NodeType fromString(String text) {
-        for (NodeType b : NodeType.values()) {
-            if (b.type.equalsIgnoreCase(text)) {
-                return b;
-            }
+        if (text == null) {
+            return STRING;
+        }
+        // the exact spelling is the common case and needs no lower-case copy of the text
+        NodeType nodeType = BY_TYPE.get(text);
+        if (nodeType == null) {
+            nodeType = BY_LOWER_CASE_TYPE.getOrDefault(text.toLowerCase(Locale.ROOT), STRING);
         }
-        return STRING;
+        return nodeType;
     }
 
 }
\ No newline at end of file
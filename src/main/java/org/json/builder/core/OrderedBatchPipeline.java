@@ -0,0 +1,197 @@
+package org.json.builder.core;
+
+import lombok.SneakyThrows;
+import org.json.builder.exception.JsonBuilderException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Turns a stream of records into a stream of output lines on a pool of workers, keeping the input order.
+ * The calling thread reads the records and cuts them into batches; each batch is encoded by a worker into a buffer
+ * taken from a shared pool. The writer writes the encoded batches to the output in input order straight from their
+ * buffers and returns the buffers to the pool. At most two batches per worker are in flight, so the memory used does
+ * not depend on the number of records.
+ *
+ * <p>The workers are started on the first run and kept for the following runs until the pipeline is closed, unless
+ * an executor is given, which is then used instead and never shut down by the pipeline.</p>
+ */
+final class OrderedBatchPipeline implements AutoCloseable {
+
+    /**
+     * Encodes one record into the buffer of the current batch.
+     */
+    @FunctionalInterface
+    interface RecordEncoder<T> {
+        void encode(T record, OutputStream buffer) throws Exception;
+    }
+
+    private final Queue<ByteArrayOutputStream> buffers = new ConcurrentLinkedQueue<>();
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 256;
+    private Executor executor;
+    private ExecutorService ownPool;
+
+    /**
+     * @param workers the number of batches encoded at the same time, 1 to encode them on the calling thread
+     */
+    synchronized void workers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of workers must be positive: " + workers);
+        }
+        if (workers != this.workers) {
+            shutdownOwnPool();
+            this.workers = workers;
+        }
+    }
+
+    /**
+     * @param batchSize the number of records handed to a worker at once
+     */
+    synchronized void batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param executor the executor to encode the batches on, or null to start and keep an own pool of workers
+     */
+    synchronized void executor(Executor executor) {
+        shutdownOwnPool();
+        this.executor = executor;
+    }
+
+    /**
+     * Shuts down the own pool of workers once the running batches are encoded. A later run starts a new pool.
+     */
+    @Override
+    public synchronized void close() {
+        shutdownOwnPool();
+    }
+
+    /**
+     * Encodes all records and writes them to the output in input order. The output is flushed but not closed.
+     *
+     * @param records      the records to encode
+     * @param encoder      the encoder of a single record
+     * @param outputStream the stream to write the encoded records to
+     * @return the number of records written
+     * @throws JsonBuilderException if a record cannot be encoded; the records before its batch are already written
+     */
+    @SneakyThrows
+    <T> long run(Iterator<? extends T> records, RecordEncoder<T> encoder, OutputStream outputStream) {
+        int workers;
+        int batchSize;
+        Executor executor;
+        synchronized (this) {
+            workers = this.workers;
+            batchSize = this.batchSize;
+            executor = workers > 1 ? executor() : null;
+        }
+        ArrayDeque<Future<ByteArrayOutputStream>> inFlight = new ArrayDeque<>();
+        long count = 0;
+        try {
+            while (records.hasNext()) {
+                List<T> batch = new ArrayList<>(batchSize);
+                long first = count;
+                while (batch.size() < batchSize && records.hasNext()) {
+                    batch.add(records.next());
+                    count++;
+                }
+                if (executor == null) {
+                    write(encode(encoder, batch, first), outputStream);
+                    continue;
+                }
+                if (inFlight.size() >= 2 * workers) {
+                    write(await(inFlight.poll()), outputStream);
+                }
+                FutureTask<ByteArrayOutputStream> task = new FutureTask<>(() -> encode(encoder, batch, first));
+                executor.execute(task);
+                inFlight.add(task);
+            }
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.poll()), outputStream);
+            }
+            outputStream.flush();
+            return count;
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private Executor executor() {
+        if (executor != null) {
+            return executor;
+        }
+        if (ownPool == null) {
+            ownPool = Executors.newFixedThreadPool(workers, OrderedBatchPipeline::newWorker);
+        }
+        return ownPool;
+    }
+
+    private void shutdownOwnPool() {
+        if (ownPool != null) {
+            ownPool.shutdown();
+            ownPool = null;
+        }
+    }
+
+    private <T> ByteArrayOutputStream encode(RecordEncoder<T> encoder, List<T> batch, long first) {
+        ByteArrayOutputStream buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new ByteArrayOutputStream(8192);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                encoder.encode(batch.get(i), buffer);
+            } catch (Exception e) {
+                release(buffer);
+                throw new JsonBuilderException("Cannot process record " + (first + i + 1) + " => " + e, e);
+            }
+        }
+        return buffer;
+    }
+
+    private void write(ByteArrayOutputStream buffer, OutputStream outputStream) throws IOException {
+        try {
+            buffer.writeTo(outputStream);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private void release(ByteArrayOutputStream buffer) {
+        buffer.reset();
+        buffers.offer(buffer);
+    }
+
+    @SneakyThrows
+    private static ByteArrayOutputStream await(Future<ByteArrayOutputStream> batch) {
+        try {
+            return batch.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Thread newWorker(Runnable task) {
+        Thread thread = new Thread(task, "json-batch-worker");
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,327 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.json.builder.core.JsonBuilder.MAPPER;
+
+/**
+ * A prefix trie of the updates and removals staged on a builder.
+ * Pending paths that share a prefix share the trie nodes of that prefix, so {@link #applyTo(JsonNode)}
+ * resolves every shared parent once in a single depth-first pass, instead of walking from the root for each path.
+ *
+ * <p>The result is the same as applying the updates one by one in the order they were first staged,
+ * followed by the removals in the order they were staged:</p>
+ * <ul>
+ *     <li>an update of a node discards the updates of its descendants staged before it, and the ones staged after it
+ *     are applied on the new value;</li>
+ *     <li>a removal of an array element closes the current group of its parent, so paths staged after it
+ *     address the shifted elements.</li>
+ * </ul>
+ */
+final class PathTrie {
+
+    private final Node updates = new Node(null);
+    private final Node removals = new Node(null);
+    private final Map<CompiledPath, Long> updateSequences = new HashMap<>();
+    private final Map<CompiledPath, Long> removalSequences = new HashMap<>();
+    private long sequence;
+
+    /**
+     * Stages an update of the node at the given path.
+     *
+     * @param path  the path of the node to update
+     * @param value the new value of the node
+     */
+    void update(CompiledPath path, JsonNode value) {
+        List<CompiledPath.Segment> segments = requireNonRoot(path);
+        Long staged = updateSequences.get(path);
+        long pathSequence = staged == null ? sequence++ : staged;
+        updateSequences.put(path, pathSequence);
+
+        // an ancestor updated after this path was first staged overwrites it
+        Node node = updates;
+        for (int i = 0; i < segments.size() - 1 && node != null; i++) {
+            node = node.findChild(segments.get(i));
+            if (node != null && node.hasValue && node.valueSequence > pathSequence) {
+                return;
+            }
+        }
+
+        node = updates;
+        for (CompiledPath.Segment segment : segments) {
+            node = node.child(segment);
+        }
+        if (!node.hasValue) {
+            node.clearChildren();
+            node.hasValue = true;
+            node.valueSequence = pathSequence;
+        }
+        node.value = value;
+    }
+
+    /**
+     * Stages a removal of the node at the given path.
+     *
+     * @param path the path of the node to remove
+     */
+    void remove(CompiledPath path) {
+        List<CompiledPath.Segment> segments = requireNonRoot(path);
+        if (removalSequences.putIfAbsent(path, sequence) != null) {
+            return;
+        }
+        sequence++;
+
+        Node parent = removals;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            parent = parent.child(segments.get(i));
+        }
+        CompiledPath.Segment last = segments.get(segments.size() - 1);
+        parent.child(last).removal = true;
+        if (last.isIndex()) {
+            // later paths under this parent must address the elements shifted by this removal
+            parent.closeGroup();
+        }
+    }
+
+    boolean isEmpty() {
+        return updateSequences.isEmpty() && removalSequences.isEmpty();
+    }
+
+    void clear() {
+        updates.clearChildren();
+        removals.clearChildren();
+        updateSequences.clear();
+        removalSequences.clear();
+        sequence = 0;
+    }
+
+    /**
+     * Applies all staged updates and then all staged removals to the given root node.
+     *
+     * @param root the root object or array node
+     */
+    void applyTo(JsonNode root) {
+        applyTo(root, false);
+    }
+
+    /**
+     * Applies all staged updates and then all staged removals to the given root node.
+     * Applying does not change the trie, so a trie that is no longer staged to can be applied to any number
+     * of documents, also concurrently, as long as the object and array values are copied.
+     *
+     * @param root       the root object or array node
+     * @param copyValues true to set copies of the object and array values, so they are not shared between documents
+     */
+    void applyTo(JsonNode root, boolean copyValues) {
+        applyTo(root, copyValues, null);
+    }
+
+    /**
+     * Applies all staged updates and then all staged removals to the given root node of a tree that may be shared
+     * with forks of its builder. Every container on the path of a change is made writable first, so containers
+     * that are shared are copied and the copies take their place, while all other subtrees stay shared.
+     *
+     * @param root        the root object or array node
+     * @param copyOnWrite the ownership of the containers of the tree
+     * @return the root node, or its copy if the root node is shared and there are changes
+     */
+    JsonNode applyTo(JsonNode root, CopyOnWrite copyOnWrite) {
+        if (isEmpty()) {
+            return root;
+        }
+        JsonNode writableRoot = copyOnWrite.writable(root);
+        applyTo(writableRoot, false, copyOnWrite);
+        return writableRoot;
+    }
+
+    private void applyTo(JsonNode root, boolean copyValues, CopyOnWrite copyOnWrite) {
+        for (Node child : updates.children) {
+            applyUpdate(root, child, copyValues, copyOnWrite);
+        }
+        for (Node child : removals.children) {
+            applyRemoval(root, child, copyOnWrite);
+        }
+    }
+
+    private void applyUpdate(JsonNode parent, Node node, boolean copyValues, CopyOnWrite copyOnWrite) {
+        JsonNode current;
+        if (node.hasValue) {
+            current = copyValues && node.value.isContainerNode() ? node.value.deepCopy() : node.value;
+            setChild(parent, node.segment, current);
+        } else {
+            current = resolveChild(parent, node.segment);
+            if (current == null || current.isMissingNode() || current.isNull()) {
+                current = StringUtils.isNumeric(node.children.get(0).segment.name()) ? MAPPER.createArrayNode() : MAPPER.createObjectNode();
+                setChild(parent, node.segment, copyOnWrite == null ? current : copyOnWrite.created(current));
+            }
+        }
+        if (!node.children.isEmpty()) {
+            current = writableChild(parent, node.segment, current, copyOnWrite);
+        }
+        for (Node child : node.children) {
+            if (!current.isContainerNode()) {
+                throw new IllegalArgumentException("Invalid parent node type for field: " + child.segment.name());
+            }
+            applyUpdate(current, child, copyValues, copyOnWrite);
+        }
+    }
+
+    private void applyRemoval(JsonNode parent, Node node, CopyOnWrite copyOnWrite) {
+        if (node.removal) {
+            removeChild(parent, node.segment);
+            return;
+        }
+        JsonNode current = resolveChild(parent, node.segment);
+        if (current == null || current.isMissingNode() || current.isNull()) {
+            return;
+        }
+        current = writableChild(parent, node.segment, current, copyOnWrite);
+        for (Node child : node.children) {
+            if (current.isContainerNode()) {
+                applyRemoval(current, child, copyOnWrite);
+            } else if (child.removal) {
+                throw new IllegalArgumentException("Invalid parent node type for field: " + child.segment.name());
+            }
+        }
+    }
+
+    private static JsonNode writableChild(JsonNode parent, CompiledPath.Segment segment, JsonNode child, CopyOnWrite copyOnWrite) {
+        if (copyOnWrite == null) {
+            return child;
+        }
+        JsonNode writable = copyOnWrite.writable(child);
+        if (writable != child) {
+            setChild(parent, segment, writable);
+        }
+        return writable;
+    }
+
+    /**
+     * Sets a single value below the given container, creating missing parents on the way.
+     *
+     * @param container the container to start from
+     * @param segments  the path segments relative to the container
+     * @param value     the value to set
+     */
+    static void setValue(JsonNode container, List<CompiledPath.Segment> segments, JsonNode value) {
+        JsonNode current = container;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            JsonNode child = resolveChild(current, segments.get(i));
+            if (child == null || child.isMissingNode() || child.isNull()) {
+                child = StringUtils.isNumeric(segments.get(i + 1).name()) ? MAPPER.createArrayNode() : MAPPER.createObjectNode();
+                setChild(current, segments.get(i), child);
+            } else if (!child.isContainerNode()) {
+                throw new IllegalArgumentException("Invalid parent node type for field: " + segments.get(i + 1).name());
+            }
+            current = child;
+        }
+        setChild(current, segments.get(segments.size() - 1), value);
+    }
+
+    /**
+     * Removes a single node below the given container. Missing parents are ignored.
+     *
+     * @param container the container to start from
+     * @param segments  the path segments relative to the container
+     */
+    static void removeValue(JsonNode container, List<CompiledPath.Segment> segments) {
+        JsonNode current = container;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            current = resolveChild(current, segments.get(i));
+            if (current == null || current.isMissingNode() || current.isNull()) {
+                return;
+            }
+            if (!current.isContainerNode()) {
+                if (i == segments.size() - 2) {
+                    throw new IllegalArgumentException("Invalid parent node type for field: " + segments.get(i + 1).name());
+                }
+                return;
+            }
+        }
+        removeChild(current, segments.get(segments.size() - 1));
+    }
+
+    static JsonNode resolveChild(JsonNode parent, CompiledPath.Segment segment) {
+        if (parent.isArray()) {
+            return segment.isIndex() ? parent.get(segment.index()) : null;
+        }
+        return parent.get(segment.name());
+    }
+
+    static void setChild(JsonNode parent, CompiledPath.Segment segment, JsonNode value) {
+        if (parent.isArray()) {
+            ArrayNode arrayNode = (ArrayNode) parent;
+            int index = Integer.parseInt(segment.name());
+            for (int i = arrayNode.size(); i <= index; i++) {
+                arrayNode.addObject();
+            }
+            arrayNode.set(index, value);
+        } else if (parent.isObject()) {
+            ((ObjectNode) parent).set(segment.name(), value);
+        } else {
+            throw new IllegalArgumentException("Invalid parent node type for field: " + segment.name());
+        }
+    }
+
+    static void removeChild(JsonNode parent, CompiledPath.Segment segment) {
+        if (parent.isArray()) {
+            ((ArrayNode) parent).remove(Integer.parseInt(segment.name()));
+        } else if (parent.isObject()) {
+            ((ObjectNode) parent).remove(segment.name());
+        } else {
+            throw new IllegalArgumentException("Invalid parent node type for field: " + segment.name());
+        }
+    }
+
+    private static List<CompiledPath.Segment> requireNonRoot(CompiledPath path) {
+        if (path.isRoot()) {
+            throw new IllegalArgumentException("Invalid JSON node path: the root node cannot be updated or removed.");
+        }
+        return path.getSegments();
+    }
+
+    private static final class Node {
+        private final CompiledPath.Segment segment;
+        private final List<Node> children = new ArrayList<>();
+        private final Map<String, Node> openChildren = new HashMap<>();
+        private JsonNode value;
+        private boolean hasValue;
+        private long valueSequence;
+        private boolean removal;
+
+        private Node(CompiledPath.Segment segment) {
+            this.segment = segment;
+        }
+
+        private Node findChild(CompiledPath.Segment childSegment) {
+            return openChildren.get(childSegment.name());
+        }
+
+        private Node child(CompiledPath.Segment childSegment) {
+            Node child = openChildren.get(childSegment.name());
+            if (child == null) {
+                child = new Node(childSegment);
+                openChildren.put(childSegment.name(), child);
+                children.add(child);
+            }
+            return child;
+        }
+
+        private void closeGroup() {
+            openChildren.clear();
+        }
+
+        private void clearChildren() {
+            children.clear();
+            openChildren.clear();
+        }
+    }
+}
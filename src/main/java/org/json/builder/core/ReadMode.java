@@ -0,0 +1,16 @@
+package org.json.builder.core;
+
+/**
+ * The way a builder reads a JSON file given as a {@link java.nio.file.Path}.
+ */
+public enum ReadMode {
+    /**
+     * Reads the file through a buffered input stream.
+     */
+    STANDARD,
+    /**
+     * Maps the file into memory through a {@link java.nio.channels.FileChannel} and parses the mapped region directly,
+     * without copying the file content into the heap first. Limited to files up to 2 GB.
+     */
+    MMAP
+}
@@ -0,0 +1,229 @@
+package org.json.builder.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.SneakyThrows;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import static org.json.builder.core.JsonBuilder.MAPPER;
+
+/**
+ * An opt-in cache of parsed template files behind {@code fromJsonFile} of {@link JsonObjectBuilder} and
+ * {@link JsonArrayBuilder}. Once a cache is {@linkplain #install(TemplateCache) installed}, loading a file that is
+ * already cached skips the disk read and the parse.
+ *
+ * <p>Entries are keyed by the absolute path of the file together with its size and last-modified time, so a changed
+ * file is read again on its next load. Each entry is weighted by the number of nodes of its tree, and the least
+ * recently used entries are evicted once the total weight exceeds the maximum weight. A file heavier than the maximum
+ * weight is never cached.</p>
+ *
+ * <p>Cached trees are never changed. By default every builder gets a deep copy of the cached tree, which is still
+ * much cheaper than reading and parsing the file. With {@link Builder#copyOnWrite(boolean)} enabled, builders share
+ * the cached tree like a {@link JsonBuilder#fork()} and copy only the containers on the paths of their changes;
+ * nodes returned by their {@code getNodeAt} and {@code buildAsJsonNode} are then part of the cache and must not be
+ * changed directly.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * TemplateCache.install(TemplateCache.builder().maxWeight(5_000_000).copyOnWrite(true).build());
+ * JsonBuilder.objectBuilder().fromJsonFile("templates/order.json").update("order.id", "A-1001").build();
+ * System.out.println(TemplateCache.installed().stats());
+ * }</pre>
+ */
+public final class TemplateCache {
+
+    private static volatile TemplateCache installed;
+
+    private final long maxWeight;
+    private final boolean copyOnWrite;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private TemplateCache(Builder builder) {
+        this.maxWeight = builder.maxWeight;
+        this.copyOnWrite = builder.copyOnWrite;
+    }
+
+    /**
+     * @return a new builder of a cache
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Makes {@code fromJsonFile} of all builders load files through the given cache.
+     *
+     * @param cache the cache to use, or null to read every file from disk again
+     */
+    public static void install(TemplateCache cache) {
+        installed = cache;
+    }
+
+    /**
+     * Stops loading files through the installed cache.
+     */
+    public static void uninstall() {
+        installed = null;
+    }
+
+    /**
+     * @return the installed cache, or null if there is none
+     */
+    public static TemplateCache installed() {
+        return installed;
+    }
+
+    /**
+     * @return the counters of the cache and its current size
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), weight);
+    }
+
+    /**
+     * Removes all entries. The counters are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Loads a file for a builder: copies the cached tree, or returns the cached tree itself if the cache
+     * {@linkplain #sharesTrees() shares its trees}. Concurrent misses of the same file each parse it, and the last
+     * one is kept.
+     *
+     * @param file the JSON file
+     * @return the tree for the builder
+     */
+    @SneakyThrows
+    JsonNode load(File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        JsonNode root = lookup(path, attributes);
+        if (root == null) {
+            root = MAPPER.readTree(file);
+            store(path, attributes, root);
+        }
+        return copyOnWrite ? root : root.deepCopy();
+    }
+
+    /**
+     * @return true if loaded trees are shared with the cache and must be changed copy-on-write
+     */
+    boolean sharesTrees() {
+        return copyOnWrite;
+    }
+
+    private synchronized JsonNode lookup(Path path, BasicFileAttributes attributes) {
+        Entry entry = entries.get(path);
+        if (entry != null && entry.size == attributes.size() && entry.lastModified.equals(attributes.lastModifiedTime())) {
+            hits++;
+            return entry.root;
+        }
+        misses++;
+        return null;
+    }
+
+    private void store(Path path, BasicFileAttributes attributes, JsonNode root) {
+        long nodeCount = countNodes(root);
+        synchronized (this) {
+            Entry previous = entries.remove(path);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            if (nodeCount > maxWeight) {
+                return;
+            }
+            entries.put(path, new Entry(attributes.size(), attributes.lastModifiedTime(), root, nodeCount));
+            weight += nodeCount;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weight > maxWeight) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    private static long countNodes(JsonNode root) {
+        long count = 0;
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.pop();
+            count++;
+            if (node.isContainerNode()) {
+                node.elements().forEachRemaining(pending::push);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The counters of a cache and its size at one point in time.
+     *
+     * @param hits      the number of loads served from the cache
+     * @param misses    the number of loads that read the file
+     * @param evictions the number of entries evicted to stay within the maximum weight
+     * @param entries   the number of cached files
+     * @param weight    the total number of nodes of the cached trees
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long weight) {
+    }
+
+    private record Entry(long size, FileTime lastModified, JsonNode root, long weight) {
+    }
+
+    /**
+     * Configures a cache.
+     */
+    public static final class Builder {
+
+        private long maxWeight = 1_000_000;
+        private boolean copyOnWrite;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxWeight the maximum total number of nodes of the cached trees; 1,000,000 by default
+         * @return this builder
+         */
+        public Builder maxWeight(long maxWeight) {
+            if (maxWeight < 1) {
+                throw new IllegalArgumentException("The maximum weight must be positive: " + maxWeight);
+            }
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * @param copyOnWrite true to share the cached trees with the builders instead of copying them; false by default
+         * @return this builder
+         */
+        public Builder copyOnWrite(boolean copyOnWrite) {
+            this.copyOnWrite = copyOnWrite;
+            return this;
+        }
+
+        /**
+         * @return the cache
+         */
+        public TemplateCache build() {
+            return new TemplateCache(this);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.json.builder.helper;
+
+import lombok.Value;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link ValidationListener} that sums up the evaluation time of every rule and expression across any number
+ * of validations, e.g. a whole {@code verifyAll} batch, to find the expensive ones.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * AggregatingValidationListener profiler = new AggregatingValidationListener();
+ * JsonValidator.addListener(profiler);
+ * JsonValidator.verifyAll(ruleBook, files, executor);
+ * JsonValidator.removeListener(profiler);
+ * System.out.println(profiler.dumpTopSlowest(10));
+ * }</pre>
+ */
+public class AggregatingValidationListener implements ValidationListener {
+
+    private final Map<String, Accumulator> rules = new ConcurrentHashMap<>();
+    private final Map<String, Accumulator> expressions = new ConcurrentHashMap<>();
+
+    @Override
+    public void onExpression(ValidationEvent event) {
+        expressions.computeIfAbsent(event.getRuleDescription() + " => " + event.getExpression(),
+                key -> new Accumulator(event.getRuleDescription(), event.getExpression())).add(event);
+    }
+
+    @Override
+    public void onRule(ValidationEvent event) {
+        rules.computeIfAbsent(String.valueOf(event.getRuleDescription()),
+                key -> new Accumulator(event.getRuleDescription(), null)).add(event);
+    }
+
+    /**
+     * @param n the maximum number of rules to return
+     * @return the statistics of the rules with the highest total evaluation time, slowest first
+     */
+    public List<Statistics> topSlowestRules(int n) {
+        return topSlowest(rules, n);
+    }
+
+    /**
+     * @param n the maximum number of expressions to return
+     * @return the statistics of the expressions with the highest total evaluation time, slowest first
+     */
+    public List<Statistics> topSlowestExpressions(int n) {
+        return topSlowest(expressions, n);
+    }
+
+    /**
+     * @param n the maximum number of rules and expressions to list
+     * @return a printable report of the slowest rules and expressions
+     */
+    public String dumpTopSlowest(int n) {
+        StringBuilder report = new StringBuilder("Slowest rules:").append(System.lineSeparator());
+        topSlowestRules(n).forEach(statistics -> report.append("  ").append(statistics).append(System.lineSeparator()));
+        report.append("Slowest expressions:").append(System.lineSeparator());
+        topSlowestExpressions(n).forEach(statistics -> report.append("  ").append(statistics).append(System.lineSeparator()));
+        return report.toString();
+    }
+
+    /**
+     * Discards everything collected so far.
+     */
+    public void reset() {
+        rules.clear();
+        expressions.clear();
+    }
+
+    private static List<Statistics> topSlowest(Map<String, Accumulator> accumulators, int n) {
+        return accumulators.values().stream()
+                .map(Accumulator::toStatistics)
+                .sorted(Comparator.comparingLong(Statistics::getTotalNanos).reversed())
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The aggregated evaluations of a rule, or of one of its expressions.
+     */
+    @Value
+    public static class Statistics {
+        String ruleDescription;
+        /** the expression, or null for the statistics of a whole rule */
+        String expression;
+        long evaluations;
+        long failures;
+        long totalNanos;
+        long maxNanos;
+        long matchedCount;
+
+        public long getMeanNanos() {
+            return evaluations == 0 ? 0 : totalNanos / evaluations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s%s: %d evaluations, %d failures, total %.3f ms, mean %.3f ms, max %.3f ms",
+                    ruleDescription, Objects.isNull(expression) ? "" : " => " + expression, evaluations, failures,
+                    totalNanos / 1e6, getMeanNanos() / 1e6, maxNanos / 1e6);
+        }
+    }
+
+    private static final class Accumulator {
+        private final String ruleDescription;
+        private final String expression;
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder matchedCount = new LongAdder();
+
+        private Accumulator(String ruleDescription, String expression) {
+            this.ruleDescription = ruleDescription;
+            this.expression = expression;
+        }
+
+        private void add(ValidationEvent event) {
+            evaluations.increment();
+            if (!event.isPassed()) failures.increment();
+            totalNanos.add(event.getNanos());
+            maxNanos.accumulate(event.getNanos());
+            matchedCount.add(event.getMatchedCount());
+        }
+
+        private Statistics toStatistics() {
+            return new Statistics(ruleDescription, expression, evaluations.sum(), failures.sum(),
+                    totalNanos.sum(), maxNanos.get(), matchedCount.sum());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.json.builder.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.JsonPath;
+import lombok.SneakyThrows;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.JsonCodecs;
+import org.json.builder.helper.bean.InDirectValidation;
+import org.json.builder.helper.bean.RuleBook;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A rule book that is read once and holds a pre-compiled {@link JsonPath} for every expression it uses.
+ * Instances are immutable and can be shared between threads, so the same rule book can validate any number of
+ * documents through {@link JsonValidator#verify(CompiledRuleBook, com.fasterxml.jackson.databind.JsonNode)}.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * CompiledRuleBook ruleBook = CompiledRuleBook.compile("rule-book.json");
+ * for (JsonNode response : responses) {
+ *     List<String> failedRules = JsonValidator.verify(ruleBook, response);
+ * }
+ * }</pre>
+ */
+public final class CompiledRuleBook {
+
+    private final List<CompiledRule> rules;
+
+    private CompiledRuleBook(List<CompiledRule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Reads and compiles the rule book from the given file.
+     *
+     * @param ruleBookFile the file path to the JSON containing validation rules
+     * @return the compiled rule book
+     */
+    public static CompiledRuleBook compile(String ruleBookFile) {
+        return compile(new File(ruleBookFile));
+    }
+
+    /**
+     * Reads and compiles the rule book from the given file.
+     *
+     * @param ruleBookFile the JSON file containing validation rules
+     * @return the compiled rule book
+     */
+    public static CompiledRuleBook compile(File ruleBookFile) {
+        JsonNode json = JsonBuilder.arrayBuilder().fromJsonFile(ruleBookFile).buildAsJsonNode();
+        return compile(readRules(json));
+    }
+
+    /**
+     * Compiles the given rules. Only the expressions a rule actually evaluates are compiled:
+     * the direct expressions for a direct check, and the condition and inner expressions otherwise.
+     *
+     * @param rules the validation rules
+     * @return the compiled rule book
+     * @throws com.jayway.jsonpath.InvalidPathException if one of the expressions is not a valid JSONPath
+     */
+    public static CompiledRuleBook compile(List<RuleBook> rules) {
+        List<CompiledRule> compiledRules = new ArrayList<>(rules.size());
+        for (RuleBook rule : rules) {
+            if (rule.isDirCheck()) {
+                List<CompiledExpression> expressions = compileAll(rule.getDirValidation() == null ? null : rule.getDirValidation().getExpressions());
+                compiledRules.add(new CompiledRule(rule.getDescription(), true, expressions, null, List.of()));
+            } else {
+                InDirectValidation inDirectValidation = rule.getIndValidation();
+                CompiledExpression condition = compileExpression(inDirectValidation.getCondition());
+                List<CompiledExpression> expressions = compileAll(inDirectValidation.getExpressions());
+                compiledRules.add(new CompiledRule(rule.getDescription(), false, List.of(), condition, expressions));
+            }
+        }
+        return new CompiledRuleBook(Collections.unmodifiableList(compiledRules));
+    }
+
+    /**
+     * @return the number of rules in this rule book
+     */
+    public int size() {
+        return rules.size();
+    }
+
+    List<CompiledRule> getRules() {
+        return rules;
+    }
+
+    @SneakyThrows
+    private static List<RuleBook> readRules(JsonNode json) {
+        return JsonCodecs.listReaderFor(RuleBook.class).readValue(json);
+    }
+
+    private static List<CompiledExpression> compileAll(List<String> expressions) {
+        if (expressions == null || expressions.isEmpty()) {
+            return List.of();
+        }
+        List<CompiledExpression> compiledExpressions = new ArrayList<>(expressions.size());
+        for (String expression : expressions) {
+            compiledExpressions.add(compileExpression(expression));
+        }
+        return Collections.unmodifiableList(compiledExpressions);
+    }
+
+    private static CompiledExpression compileExpression(String expression) {
+        return new CompiledExpression(expression, JsonPath.compile(expression), PathValueIndex.parse(expression));
+    }
+
+    /**
+     * A rule of the rule book with its compiled expressions.
+     */
+    record CompiledRule(String description, boolean dirCheck, List<CompiledExpression> dirExpressions,
+                        CompiledExpression condition, List<CompiledExpression> indExpressions) {
+    }
+
+    /**
+     * A JSONPath expression together with its compiled form, and its index query if the expression is simple.
+     */
+    record CompiledExpression(String expression, JsonPath path, PathValueIndex.Query indexQuery) {
+    }
+}
@@ -0,0 +1,282 @@
+package org.json.builder.helper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import lombok.SneakyThrows;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.internal.SubtreeHasher;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes the differences between two JSON documents as a JSON Patch (RFC 6902): an array of {@code add},
+ * {@code remove} and {@code replace} operations that turns the source document into the target document
+ * when applied in order.
+ *
+ * <p>Every subtree is hashed once, so subtrees that are the same in both documents are recognized and skipped
+ * without walking them again. Objects are compared field by field. Arrays are aligned by the longest common
+ * subsequence of their elements, after the common head and tail are cut off; elements that differ at the same
+ * place are compared recursively, so a changed field of an array element yields a single {@code replace}.
+ * Arrays whose differing middle parts are too large to align are compared position by position.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * JsonNode patch = JsonDiff.between(expectedBuilder, actualBuilder);
+ * // [{"op":"replace","path":"/address/city","value":"London"},{"op":"remove","path":"/tags/1"}]
+ * }</pre>
+ */
+public final class JsonDiff {
+
+    /** the largest number of element pairs aligned by their longest common subsequence */
+    private static final long MAX_ALIGNED_PAIRS = 1L << 22;
+
+    private final SubtreeHasher hasher = new SubtreeHasher();
+    private final StringBuilder path = new StringBuilder(128);
+    private final Sink sink;
+
+    private JsonDiff(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Computes the patch between the JSON of two builders. Pending changes of both builders are built first.
+     *
+     * @param source the builder with the original JSON
+     * @param target the builder with the changed JSON
+     * @return the JSON Patch that turns the source JSON into the target JSON
+     */
+    public static ArrayNode between(JsonBuilder source, JsonBuilder target) {
+        return between(source.buildAsJsonNode(), target.buildAsJsonNode());
+    }
+
+    /**
+     * Computes the patch between two JSON nodes.
+     *
+     * @param source the original JSON
+     * @param target the changed JSON
+     * @return the JSON Patch that turns the source JSON into the target JSON; empty if both are equal
+     */
+    public static ArrayNode between(JsonNode source, JsonNode target) {
+        ArrayNode patch = JsonBuilder.MAPPER.createArrayNode();
+        new JsonDiff((op, path, value) -> {
+            var operation = patch.addObject().put("op", op).put("path", path.toString());
+            if (value != null) operation.set("value", value.deepCopy());
+        }).diff(source, target);
+        return patch;
+    }
+
+    /**
+     * Computes the patch between two JSON nodes and writes it to the stream while it is computed, so the patch
+     * is never held in memory. Only the patch is streamed: both documents are trees in memory, and the subtree
+     * hashes cached for them take memory in proportion to their number of objects and arrays, so the memory used
+     * is still O(size of both documents). The stream is flushed but not closed.
+     *
+     * @param source       the original JSON
+     * @param target       the changed JSON
+     * @param outputStream the stream to write the UTF-8 encoded JSON Patch to
+     * @return the number of operations written
+     */
+    @SneakyThrows
+    public static long between(JsonNode source, JsonNode target, OutputStream outputStream) {
+        try (JsonGenerator generator = JsonBuilder.MAPPER.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long[] count = {0};
+            generator.writeStartArray();
+            new JsonDiff((op, path, value) -> {
+                writeOperation(generator, op, path, value);
+                count[0]++;
+            }).diff(source, target);
+            generator.writeEndArray();
+            return count[0];
+        }
+    }
+
+    @SneakyThrows
+    private static void writeOperation(JsonGenerator generator, String op, CharSequence path, JsonNode value) {
+        generator.writeStartObject();
+        generator.writeStringField("op", op);
+        generator.writeStringField("path", path.toString());
+        if (value != null) {
+            generator.writeFieldName("value");
+            JsonBuilder.MAPPER.writeTree(generator, value);
+        }
+        generator.writeEndObject();
+    }
+
+    private void diff(JsonNode source, JsonNode target) {
+        if (hasher.same(source, target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            diffObjects(source, target);
+        } else if (source.isArray() && target.isArray()) {
+            diffArrays(source, target);
+        } else {
+            sink.accept("replace", path, target);
+        }
+    }
+
+    private void diffObjects(JsonNode source, JsonNode target) {
+        int length = path.length();
+        Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            appendField(field.getKey());
+            JsonNode targetValue = target.get(field.getKey());
+            if (targetValue == null) {
+                sink.accept("remove", path, null);
+            } else {
+                diff(field.getValue(), targetValue);
+            }
+            path.setLength(length);
+        }
+        fields = target.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!source.has(field.getKey())) {
+                appendField(field.getKey());
+                sink.accept("add", path, field.getValue());
+                path.setLength(length);
+            }
+        }
+    }
+
+    /**
+     * Walks both arrays along their alignment. After the operations for the elements before source element
+     * {@code i} and target element {@code j} are applied, the array holds the target elements before {@code j}
+     * followed by the source elements from {@code i} on, so {@code j} is the current index of source element {@code i}.
+     */
+    private void diffArrays(JsonNode source, JsonNode target) {
+        int sourceSize = source.size();
+        int targetSize = target.size();
+        int head = 0;
+        while (head < sourceSize && head < targetSize && hasher.same(source.get(head), target.get(head))) {
+            head++;
+        }
+        int tail = 0;
+        while (tail < sourceSize - head && tail < targetSize - head
+                && hasher.same(source.get(sourceSize - 1 - tail), target.get(targetSize - 1 - tail))) {
+            tail++;
+        }
+        int sourceEnd = sourceSize - tail;
+        int targetEnd = targetSize - tail;
+        int i = head;
+        int j = head;
+        boolean[][] matches = align(source, head, sourceEnd, target, head, targetEnd);
+        if (matches != null) {
+            boolean[] sourceMatched = matches[0];
+            boolean[] targetMatched = matches[1];
+            while (i < sourceEnd || j < targetEnd) {
+                int nextSource = i;
+                while (nextSource < sourceEnd && !sourceMatched[nextSource - head]) nextSource++;
+                int nextTarget = j;
+                while (nextTarget < targetEnd && !targetMatched[nextTarget - head]) nextTarget++;
+                j = diffRun(source, i, nextSource, target, j, nextTarget);
+                i = nextSource;
+                if (i < sourceEnd && j < targetEnd) {
+                    // an aligned pair is equal, so nothing has to change
+                    i++;
+                    j++;
+                }
+            }
+        } else {
+            diffRun(source, i, sourceEnd, target, j, targetEnd);
+        }
+    }
+
+    /**
+     * Turns the source elements {@code [i, sourceEnd)} into the target elements {@code [j, targetEnd)}, comparing
+     * the elements at the same place and then removing or adding the rest.
+     *
+     * @return the target index after the run
+     */
+    private int diffRun(JsonNode source, int i, int sourceEnd, JsonNode target, int j, int targetEnd) {
+        int length = path.length();
+        while (i < sourceEnd && j < targetEnd) {
+            appendIndex(j);
+            diff(source.get(i++), target.get(j++));
+            path.setLength(length);
+        }
+        while (i < sourceEnd) {
+            appendIndex(j);
+            sink.accept("remove", path, null);
+            path.setLength(length);
+            i++;
+        }
+        while (j < targetEnd) {
+            appendIndex(j);
+            sink.accept("add", path, target.get(j++));
+            path.setLength(length);
+        }
+        return j;
+    }
+
+    /**
+     * Aligns two ranges of elements by the longest common subsequence of their hashes.
+     *
+     * @return the flags of the aligned source and target elements, or null if the ranges are too large to align
+     */
+    private boolean[][] align(JsonNode source, int sourceStart, int sourceEnd, JsonNode target, int targetStart, int targetEnd) {
+        int n = sourceEnd - sourceStart;
+        int m = targetEnd - targetStart;
+        if (n == 0 || m == 0 || (long) n * m > MAX_ALIGNED_PAIRS) {
+            return null;
+        }
+        long[] sourceHashes = new long[n];
+        long[] targetHashes = new long[m];
+        for (int i = 0; i < n; i++) sourceHashes[i] = hasher.hash(source.get(sourceStart + i));
+        for (int j = 0; j < m; j++) targetHashes[j] = hasher.hash(target.get(targetStart + j));
+
+        // lengths[i * (m + 1) + j] is the length of the common subsequence of the suffixes starting at i and j
+        int[] lengths = new int[(n + 1) * (m + 1)];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                lengths[i * (m + 1) + j] = sourceHashes[i] == targetHashes[j]
+                        ? lengths[(i + 1) * (m + 1) + j + 1] + 1
+                        : Math.max(lengths[(i + 1) * (m + 1) + j], lengths[i * (m + 1) + j + 1]);
+            }
+        }
+        boolean[] sourceMatched = new boolean[n];
+        boolean[] targetMatched = new boolean[m];
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            if (sourceHashes[i] == targetHashes[j]
+                    && hasher.same(source.get(sourceStart + i), target.get(targetStart + j))) {
+                sourceMatched[i++] = true;
+                targetMatched[j++] = true;
+            } else if (lengths[(i + 1) * (m + 1) + j] >= lengths[i * (m + 1) + j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new boolean[][]{sourceMatched, targetMatched};
+    }
+
+    private void appendField(String name) {
+        path.append('/');
+        for (int k = 0; k < name.length(); k++) {
+            char c = name.charAt(k);
+            if (c == '~') path.append("~0");
+            else if (c == '/') path.append("~1");
+            else path.append(c);
+        }
+    }
+
+    private void appendIndex(int index) {
+        path.append('/').append(index);
+    }
+
+    /**
+     * Receives the operations of the patch in order.
+     */
+    @FunctionalInterface
+    private interface Sink {
+        void accept(String op, CharSequence path, JsonNode value);
+    }
+}
@@ -3,44 +3,31 @@ package org.json.builder.helper;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.json.builder.core.JsonBuilder;
 
-import java.util.Iterator;
+import java.util.List;
 
 public class JsonPathFinder {
 
+    /**
+     * Finds the path of the first node in document order that is equal to the sub-node.
+     * The walk stops at the first match; to look up many sub-nodes in the same document, create a
+     * {@link JsonPathIndex} once instead.
+     *
+     * @param rootNode the root node of the document
+     * @param subNode  the node to look for
+     * @return the path of the sub-node, the empty string if it equals the root, or null if it is not found
+     */
     public static String getJsonPath(JsonNode rootNode, JsonNode subNode) {
-        StringBuilder jsonPath = new StringBuilder();
-        if (findJsonPath(rootNode, subNode, jsonPath, "")) {
-            return jsonPath.toString();
-        }
-        return null; // Return null if subNode is not found in rootNode
+        return JsonBuilder.getJsonPath(rootNode, subNode);
     }
 
-    private static boolean findJsonPath(JsonNode currentNode, JsonNode targetNode, StringBuilder jsonPath, String currentPath) {
-        if (currentNode.equals(targetNode)) {
-            jsonPath.append(currentPath);
-            return true;
-        }
-
-        if (currentNode.isObject()) {
-            for (var entry : iterable(currentNode.fields())) {
-                String newPath = currentPath.isEmpty() ? entry.getKey() : currentPath + "." + entry.getKey();
-                if (findJsonPath(entry.getValue(), targetNode, jsonPath, newPath)) {
-                    return true;
-                }
-            }
-        } else if (currentNode.isArray()) {
-            for (int i = 0; i < currentNode.size(); i++) {
-                String newPath = currentPath + "[" + i + "]";
-                if (findJsonPath(currentNode.get(i), targetNode, jsonPath, newPath)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private static <T> Iterable<T> iterable(Iterator<T> iterator) {
-        return () -> iterator;
+    /**
+     * Finds the paths of all nodes that are equal to the sub-node.
+     *
+     * @param rootNode the root node of the document
+     * @param subNode  the node to look for
+     * @return the paths of the sub-node in document order, or an empty list if it is not found
+     */
+    public static List<String> getAllJsonPaths(JsonNode rootNode, JsonNode subNode) {
+        return JsonPathIndex.of(rootNode).getAllJsonPaths(subNode);
     }
 }
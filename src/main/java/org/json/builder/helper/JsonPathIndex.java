@@ -0,0 +1,151 @@
+package org.json.builder.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.internal.SubtreeHasher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of every node of a document by its structural hash, for looking up the paths of sub-nodes.
+ * The hashes are computed bottom-up once when the index is created. A lookup hashes the sub-node, probes the index
+ * and confirms the candidates with {@link JsonNode#equals(Object)}, instead of comparing the sub-node with every
+ * node of the document.
+ *
+ * <p>Paths are in the format of {@link JsonPathFinder#getJsonPath(JsonNode, JsonNode)}, e.g. {@code friends[1].name},
+ * and the empty string for the root. The index reflects the document as it was when the index was created;
+ * it can be shared between threads as long as the document is not changed.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * JsonPathIndex index = JsonPathIndex.of(responseNode);
+ * String first = index.getJsonPath(expectedItem);
+ * List<String> all = index.getAllJsonPaths(expectedItem);
+ * }</pre>
+ */
+public final class JsonPathIndex {
+
+    private static final int NONE = -1;
+
+    private final JsonNode[] nodes;
+    private final int[] parents;
+    /** the field name of a node in its parent object, or null for an array element or the root */
+    private final String[] names;
+    private final int[] indexes;
+    /** the next node with the same hash, in document order */
+    private final int[] nextSameHash;
+    private final Map<Long, Integer> firstByHash;
+
+    private JsonPathIndex(JsonNode root) {
+        Builder builder = new Builder();
+        builder.add(root, NONE, null, 0);
+        int size = builder.size;
+        this.nodes = Arrays.copyOf(builder.nodes, size);
+        this.parents = Arrays.copyOf(builder.parents, size);
+        this.names = Arrays.copyOf(builder.names, size);
+        this.indexes = Arrays.copyOf(builder.indexes, size);
+        this.nextSameHash = new int[size];
+        this.firstByHash = new HashMap<>();
+
+        SubtreeHasher hasher = new SubtreeHasher();
+        Map<Long, Integer> lastByHash = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            long hash = hasher.hash(nodes[i]);
+            nextSameHash[i] = NONE;
+            Integer last = lastByHash.put(hash, i);
+            if (last == null) firstByHash.put(hash, i);
+            else nextSameHash[last] = i;
+        }
+    }
+
+    /**
+     * Indexes every node of the document.
+     *
+     * @param root the root node of the document
+     * @return the index
+     */
+    public static JsonPathIndex of(JsonNode root) {
+        return new JsonPathIndex(root);
+    }
+
+    /**
+     * @param subNode the node to look for
+     * @return the path of the first node equal to the sub-node in document order, or null if there is none
+     */
+    public String getJsonPath(JsonNode subNode) {
+        Integer candidate = firstByHash.get(new SubtreeHasher().hash(subNode));
+        for (int i = candidate == null ? NONE : candidate; i != NONE; i = nextSameHash[i]) {
+            if (nodes[i].equals(subNode)) {
+                return pathOf(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param subNode the node to look for
+     * @return the paths of all nodes equal to the sub-node in document order, or an empty list if there is none
+     */
+    public List<String> getAllJsonPaths(JsonNode subNode) {
+        List<String> paths = new ArrayList<>();
+        Integer candidate = firstByHash.get(new SubtreeHasher().hash(subNode));
+        for (int i = candidate == null ? NONE : candidate; i != NONE; i = nextSameHash[i]) {
+            if (nodes[i].equals(subNode)) {
+                paths.add(pathOf(i));
+            }
+        }
+        return paths;
+    }
+
+    private String pathOf(int node) {
+        if (parents[node] == NONE) {
+            return "";
+        }
+        String parentPath = pathOf(parents[node]);
+        if (names[node] == null) {
+            return parentPath + "[" + indexes[node] + "]";
+        }
+        return parentPath.isEmpty() ? names[node] : parentPath + "." + names[node];
+    }
+
+    /**
+     * Collects the nodes in document order, each before its members.
+     */
+    private static final class Builder {
+        private JsonNode[] nodes = new JsonNode[64];
+        private int[] parents = new int[64];
+        private String[] names = new String[64];
+        private int[] indexes = new int[64];
+        private int size;
+
+        private void add(JsonNode node, int parent, String name, int index) {
+            if (size == nodes.length) {
+                int capacity = size * 2;
+                nodes = Arrays.copyOf(nodes, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                names = Arrays.copyOf(names, capacity);
+                indexes = Arrays.copyOf(indexes, capacity);
+            }
+            int ordinal = size++;
+            nodes[ordinal] = node;
+            parents[ordinal] = parent;
+            names[ordinal] = name;
+            indexes[ordinal] = index;
+            if (node.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    add(field.getValue(), ordinal, field.getKey(), 0);
+                }
+            } else if (node.isArray()) {
+                for (int i = 0; i < node.size(); i++) {
+                    add(node.get(i), ordinal, null, i);
+                }
+            }
+        }
+    }
+}
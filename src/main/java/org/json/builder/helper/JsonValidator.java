@@ -1,19 +1,52 @@
 package org.json.builder.helper;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.ReadContext;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.SneakyThrows;
 import org.json.builder.core.JsonBuilder;
-import org.json.builder.helper.bean.InDirectValidation;
-import org.json.builder.helper.bean.RuleBook;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 public class JsonValidator {
 
+    // Set up configuration for JsonPath Expression - evaluated directly on the Jackson tree, results are array nodes
+    private static final Configuration CONFIGURATION = Configuration.builder()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(JsonBuilder.MAPPER))
+            .mappingProvider(new JacksonMappingProvider(JsonBuilder.MAPPER))
+            .options(Option.DEFAULT_PATH_LEAF_TO_NULL, Option.ALWAYS_RETURN_LIST)
+            .build();
+
+    private static final List<ValidationListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener that receives a profiling event for every evaluated rule and expression.
+     *
+     * @param listener the listener to add
+     */
+    public static void addListener(ValidationListener listener) {
+        LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Unregisters a listener added by {@link #addListener(ValidationListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public static void removeListener(ValidationListener listener) {
+        LISTENERS.remove(listener);
+    }
+
     /**
      * <pre>
      * Compares the given JSON file against a set of validation rules specified in a rule book file.
@@ -130,65 +163,250 @@ public class JsonValidator {
     }
 
     public static List<String> verify(File ruleBookFile, File actualJsonFile) {
-
         // Read the actual JSON file to run rules against - for validation
-        JsonBuilder actualJson_builder = JsonBuilder.objectBuilder().fromJsonFile(actualJsonFile).build();
-        String actualJson = actualJson_builder.toPrettyString();
+        JsonNode actualJson = JsonBuilder.objectBuilder().fromJsonFile(actualJsonFile).buildAsJsonNode();
+        return verify(CompiledRuleBook.compile(ruleBookFile), actualJson);
+    }
+
+    /**
+     * Validates the given JSON file against a pre-compiled rule book.
+     *
+     * @param ruleBook       the compiled validation rules
+     * @param actualJsonFile the file path to the JSON to be validated
+     * @return a list of error messages for failed validations, or an empty list if all validations pass
+     */
+    public static List<String> verify(CompiledRuleBook ruleBook, String actualJsonFile) {
+        return verify(ruleBook, new File(actualJsonFile));
+    }
 
-        // Read Rules from a rule-book.json file
-        String json = JsonBuilder.arrayBuilder().fromJsonFile(ruleBookFile).buildAsJsonNode().toPrettyString();
-        List<RuleBook> rules = JsonBuilder.transformJsonToPojoLst(json, RuleBook.class);
+    /**
+     * Validates the given JSON file against a pre-compiled rule book.
+     *
+     * @param ruleBook       the compiled validation rules
+     * @param actualJsonFile the JSON file to be validated
+     * @return a list of error messages for failed validations, or an empty list if all validations pass
+     */
+    public static List<String> verify(CompiledRuleBook ruleBook, File actualJsonFile) {
+        return verify(ruleBook, JsonBuilder.objectBuilder().fromJsonFile(actualJsonFile).buildAsJsonNode());
+    }
 
-        // Set up configuration for JsonPath Expression
-        Configuration configuration = Configuration.defaultConfiguration()
-                .addOptions(Option.DEFAULT_PATH_LEAF_TO_NULL)
-                .addOptions(Option.ALWAYS_RETURN_LIST);
+    /**
+     * Validates the given JSON node against a pre-compiled rule book.
+     * The rule book is not modified, so the same instance can be used from several threads at once.
+     *
+     * @param ruleBook   the compiled validation rules
+     * @param actualJson the JSON to be validated
+     * @return a list of error messages for failed validations, or an empty list if all validations pass
+     */
+    public static List<String> verify(CompiledRuleBook ruleBook, JsonNode actualJson) {
+        return verify(ruleBook, actualJson, false);
+    }
 
-        // read the entire actual JSON and store as ReadContext by using the above configurations
-        ReadContext context = JsonPath.using(configuration).parse(actualJson_builder.toPrettyString());
+    /**
+     * Validates the given JSON node against a pre-compiled rule book.
+     * With {@code usePathIndex} set to true, simple equality and existence expressions such as
+     * {@code $.friends[?(@.age == 30)]} are answered from a hash index of the document values that is built
+     * on first use, instead of a JsonPath filter scan. This pays off when several rules filter the same arrays.
+     * Any other expression is evaluated with JsonPath.
+     *
+     * @param ruleBook     the compiled validation rules
+     * @param actualJson   the JSON to be validated
+     * @param usePathIndex whether simple expressions are answered from a path-value index
+     * @return a list of error messages for failed validations, or an empty list if all validations pass
+     */
+    public static List<String> verify(CompiledRuleBook ruleBook, JsonNode actualJson, boolean usePathIndex) {
 
         // List of rules that failed
         List<String> failedRules = new ArrayList<>();
 
         // if the JSON to be validated is empty, then return an error message
-        if (actualJson_builder.buildAsJsonNode().isEmpty()) {
+        if (actualJson.isEmpty()) {
             failedRules.add("Cannot verify an empty JSON");
             return failedRules;
         }
 
-        for (RuleBook rule : rules) {
-            if (rule.isDirCheck()) {
-                List<String> jsonPathExpressions = rule.getDirValidation().getExpressions();
+        PathValueIndex index = usePathIndex ? new PathValueIndex(actualJson) : null;
+        boolean profiling = !LISTENERS.isEmpty();
 
-                for (String jsonPathExpression : jsonPathExpressions) {
-                    List<Object> result = context.read(jsonPathExpression);
+        for (CompiledRuleBook.CompiledRule rule : ruleBook.getRules()) {
+            long ruleStart = profiling ? System.nanoTime() : 0L;
+            int failuresBefore = failedRules.size();
+            int ruleMatchedCount = 0;
 
-                    if (result.isEmpty()) // result's size > 0, then a match is found in actual JSON. Otherwise, failed.
-                        failedRules.add(String.join(" => ", rule.getDescription(), jsonPathExpression));
+            if (rule.dirCheck()) {
+                for (CompiledRuleBook.CompiledExpression jsonPathExpression : rule.dirExpressions()) {
+                    ruleMatchedCount += evaluate(rule, jsonPathExpression, ValidationEvent.Branch.DIRECT, actualJson, index, profiling, failedRules);
                 }
+            } else if (rule.indExpressions().isEmpty()) {
+                // only the existence of a match matters, so the condition can be answered from the index
+                ruleMatchedCount += evaluate(rule, rule.condition(), ValidationEvent.Branch.INDIRECT_CONDITION, actualJson, index, profiling, failedRules);
             } else {
-                InDirectValidation inDirectValidation = rule.getIndValidation();
-                String conditionPathExpression = inDirectValidation.getCondition();
-                List<Object> result = context.read(conditionPathExpression);
+                long start = profiling ? System.nanoTime() : 0L;
+                ArrayNode result = rule.condition().path().read(actualJson, CONFIGURATION);
+                ruleMatchedCount += result.size();
+                if (profiling)
+                    publishExpression(rule, rule.condition(), ValidationEvent.Branch.INDIRECT_CONDITION, start, result.size(), false);
 
                 if (!result.isEmpty()) {
-                    String satisfiedJsonNode = JsonBuilder.transformPojoToJsonNode(result).toPrettyString();
-
-                    // if pathExpressions are given, then
-                    if (!inDirectValidation.getExpressions().isEmpty()) {
-                        ReadContext innerContext = JsonPath.using(configuration).parse(satisfiedJsonNode);
-
-                        for (String innerPathExpression : inDirectValidation.getExpressions()) {
-                            List<Object> innerResult = innerContext.read(innerPathExpression);
-                            if (innerResult.isEmpty())
-                                failedRules.add(String.join(" => ", rule.getDescription(), innerPathExpression));
-                        }
+                    // if pathExpressions are given, then run them on the matched nodes
+                    for (CompiledRuleBook.CompiledExpression innerPathExpression : rule.indExpressions()) {
+                        start = profiling ? System.nanoTime() : 0L;
+                        ArrayNode innerResult = innerPathExpression.path().read(result, CONFIGURATION);
+                        ruleMatchedCount += innerResult.size();
+                        if (innerResult.isEmpty())
+                            failedRules.add(String.join(" => ", rule.description(), innerPathExpression.expression()));
+                        if (profiling)
+                            publishExpression(rule, innerPathExpression, ValidationEvent.Branch.INDIRECT, start, innerResult.size(), false);
                     }
                 } else {
-                    failedRules.add(rule.getDescription());
+                    failedRules.add(rule.description());
                 }
             }
+
+            if (profiling)
+                publishRule(rule, ruleStart, ruleMatchedCount, failedRules.size() == failuresBefore);
         }
         return failedRules;
     }
+
+    /**
+     * Validates many JSON files against the same rule book, fanning the files out over the given executor.
+     * At most two files per available processor are read and validated at once.
+     *
+     * @param ruleBook        the compiled validation rules
+     * @param actualJsonFiles the JSON files to be validated
+     * @param executor        the executor to run the validations on, e.g. a {@code ForkJoinPool} or a virtual thread executor
+     * @return the failed rules of every file, in the order of the given files
+     * @see #verifyAll(CompiledRuleBook, Stream, Executor, int)
+     */
+    public static Map<Path, List<String>> verifyAll(CompiledRuleBook ruleBook, Stream<Path> actualJsonFiles, Executor executor) {
+        return verifyAll(ruleBook, actualJsonFiles, executor, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Validates many JSON files against the same rule book, fanning the files out over the given executor.
+     * The stream is consumed lazily: a file is only submitted once fewer than {@code maxInFlight} files are being
+     * validated, so the memory held by parsed documents stays bounded however many files there are.
+     * A file that cannot be read or validated is reported with a single failure entry describing the error.
+     *
+     * @param ruleBook        the compiled validation rules
+     * @param actualJsonFiles the JSON files to be validated
+     * @param executor        the executor to run the validations on, e.g. a {@code ForkJoinPool} or a virtual thread executor
+     * @param maxInFlight     the maximum number of files validated at the same time
+     * @return the failed rules of every file, in the order of the given files
+     */
+    @SneakyThrows
+    public static Map<Path, List<String>> verifyAll(CompiledRuleBook ruleBook, Stream<Path> actualJsonFiles, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be greater than zero: " + maxInFlight);
+        }
+        List<Path> order = new ArrayList<>();
+        Map<Path, List<String>> results = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        Iterator<Path> iterator = actualJsonFiles.iterator();
+        while (iterator.hasNext()) {
+            Path actualJsonFile = iterator.next();
+            order.add(actualJsonFile);
+            inFlight.acquire();
+            try {
+                executor.execute(() -> {
+                    try {
+                        results.put(actualJsonFile, verifyFile(ruleBook, actualJsonFile));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        // wait for the validations still running
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        Map<Path, List<String>> report = new LinkedHashMap<>();
+        order.forEach(actualJsonFile -> report.put(actualJsonFile, results.get(actualJsonFile)));
+        return report;
+    }
+
+    /**
+     * Validates many JSON files against the same rule book, fanning the files out over the given executor.
+     *
+     * @param ruleBook        the compiled validation rules
+     * @param actualJsonFiles the JSON files to be validated
+     * @param executor        the executor to run the validations on
+     * @return the failed rules of every file, in the order of the given files
+     * @see #verifyAll(CompiledRuleBook, Stream, Executor, int)
+     */
+    public static Map<File, List<String>> verifyAll(CompiledRuleBook ruleBook, Collection<File> actualJsonFiles, Executor executor) {
+        Map<Path, List<String>> report = verifyAll(ruleBook, actualJsonFiles.stream().map(File::toPath), executor);
+        Map<File, List<String>> fileReport = new LinkedHashMap<>();
+        report.forEach((actualJsonFile, failedRules) -> fileReport.put(actualJsonFile.toFile(), failedRules));
+        return fileReport;
+    }
+
+    /**
+     * Evaluates an expression on which only the existence of a match matters, and records a failure if there is none.
+     *
+     * @return the number of matched nodes
+     */
+    private static int evaluate(CompiledRuleBook.CompiledRule rule, CompiledRuleBook.CompiledExpression expression, ValidationEvent.Branch branch,
+                                JsonNode actualJson, PathValueIndex index, boolean profiling, List<String> failedRules) {
+        long start = profiling ? System.nanoTime() : 0L;
+        int matchedCount;
+        boolean indexed = false;
+        Boolean matched = index != null && expression.indexQuery() != null ? index.matches(expression.indexQuery()) : null;
+        if (matched != null) {
+            indexed = true;
+            matchedCount = matched ? 1 : 0;
+        } else {
+            ArrayNode result = expression.path().read(actualJson, CONFIGURATION);
+            matchedCount = result.size();
+        }
+
+        if (matchedCount == 0) { // result's size > 0, then a match is found in actual JSON. Otherwise, failed.
+            failedRules.add(branch == ValidationEvent.Branch.DIRECT
+                    ? String.join(" => ", rule.description(), expression.expression())
+                    : rule.description());
+        }
+        if (profiling)
+            publishExpression(rule, expression, branch, start, matchedCount, indexed);
+        return matchedCount;
+    }
+
+    private static void publishExpression(CompiledRuleBook.CompiledRule rule, CompiledRuleBook.CompiledExpression expression,
+                                          ValidationEvent.Branch branch, long start, int matchedCount, boolean indexed) {
+        ValidationEvent event = ValidationEvent.builder()
+                .ruleDescription(rule.description())
+                .expression(expression.expression())
+                .branch(branch)
+                .nanos(System.nanoTime() - start)
+                .matchedCount(matchedCount)
+                .passed(matchedCount > 0)
+                .indexed(indexed)
+                .build();
+        LISTENERS.forEach(listener -> listener.onExpression(event));
+    }
+
+    private static void publishRule(CompiledRuleBook.CompiledRule rule, long start, int matchedCount, boolean passed) {
+        ValidationEvent event = ValidationEvent.builder()
+                .ruleDescription(rule.description())
+                .branch(rule.dirCheck() ? ValidationEvent.Branch.DIRECT : ValidationEvent.Branch.INDIRECT)
+                .nanos(System.nanoTime() - start)
+                .matchedCount(matchedCount)
+                .passed(passed)
+                .build();
+        LISTENERS.forEach(listener -> listener.onRule(event));
+    }
+
+    private static List<String> verifyFile(CompiledRuleBook ruleBook, Path actualJsonFile) {
+        try {
+            return verify(ruleBook, JsonBuilder.objectBuilder().fromPath(actualJsonFile).buildAsJsonNode());
+        } catch (Exception e) {
+            return List.of(String.join(" => ", "Cannot verify the JSON file", String.valueOf(e)));
+        }
+    }
 }
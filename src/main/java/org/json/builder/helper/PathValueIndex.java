@@ -0,0 +1,186 @@
+package org.json.builder.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A hash index of the values of one document, used to answer simple rule-book expressions without a JsonPath scan.
+ * An expression is simple when it is a single equality or existence filter on a fixed path, such as
+ * {@code $[?(@.name == 'Alice')]}, {@code $.friends[?(@.age == 30)]}, {@code $.tags[?(@ == 'new')]} or
+ * {@code $.friends[?(@.pets)]}.
+ *
+ * <p>The filtered node is resolved by its fixed path. For an array, the values found at the filter path
+ * of every element ({@code friends[*].age}) are collected once into a hash set, which later lookups on the same
+ * array and filter path reuse. An object is filtered as a single node, the way JsonPath does it.
+ * Whenever JsonPath could compare values of different types, or the path crosses a null, a scalar or an array,
+ * the index gives no answer and the expression falls back to JsonPath.</p>
+ */
+final class PathValueIndex {
+
+    private static final String NAME = "[A-Za-z_$][A-Za-z0-9_$-]*";
+    private static final Pattern SIMPLE_EXPRESSION = Pattern.compile(
+            "^\\$((?:\\." + NAME + "|\\[\\d+])*)\\[\\?\\(@((?:\\." + NAME + ")*)\\s*(?:==\\s*('[^'\\\\]*'|\"[^\"\\\\]*\"|-?\\d+(?:\\.\\d+)?|true|false))?\\s*\\)]$");
+    private static final Pattern PREFIX_SEGMENT = Pattern.compile("\\.(" + NAME + ")|\\[(\\d+)]");
+
+    private static final int KIND_TEXT = 1;
+    private static final int KIND_NUMBER = 2;
+    private static final int KIND_BOOLEAN = 4;
+    private static final int KIND_OTHER = 8;
+
+    private final JsonNode root;
+    private final Map<JsonNode, Map<List<String>, Values>> arrayIndexes = new IdentityHashMap<>();
+
+    PathValueIndex(JsonNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Parses an expression into a query the index can answer.
+     *
+     * @param expression the JsonPath expression
+     * @return the query, or null if the expression is not simple
+     */
+    static Query parse(String expression) {
+        if (expression == null) {
+            return null;
+        }
+        Matcher matcher = SIMPLE_EXPRESSION.matcher(expression.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        List<String> prefix = new ArrayList<>();
+        Matcher segment = PREFIX_SEGMENT.matcher(matcher.group(1));
+        while (segment.find()) {
+            prefix.add(segment.group(1) != null ? segment.group(1) : segment.group(2));
+        }
+        List<String> field = matcher.group(2).isEmpty()
+                ? List.of()
+                : List.of(matcher.group(2).substring(1).split("\\."));
+        String literal = matcher.group(3);
+        if (literal == null) {
+            // an existence check needs a field to look for
+            return field.isEmpty() ? null : new Query(prefix, field, null, 0);
+        }
+        if (literal.startsWith("'") || literal.startsWith("\"")) {
+            return new Query(prefix, field, literal.substring(1, literal.length() - 1), KIND_TEXT);
+        }
+        if (literal.equals("true") || literal.equals("false")) {
+            return new Query(prefix, field, Boolean.valueOf(literal), KIND_BOOLEAN);
+        }
+        return new Query(prefix, field, new BigDecimal(literal).stripTrailingZeros(), KIND_NUMBER);
+    }
+
+    /**
+     * Answers the query from the index.
+     *
+     * @param query the parsed query
+     * @return true if the expression has at least one match, false if it has none,
+     * or null if the index cannot answer it and JsonPath has to be used
+     */
+    Boolean matches(Query query) {
+        JsonNode target = resolvePrefix(query);
+        if (target == null) {
+            return null;
+        }
+        Values values;
+        if (target.isArray()) {
+            values = arrayIndexes.computeIfAbsent(target, array -> new HashMap<>())
+                    .computeIfAbsent(query.field(), field -> collect(target, field));
+        } else {
+            values = new Values();
+            values.add(target, query.field());
+        }
+        if (values.unanswerable) {
+            return null;
+        }
+        if (query.literal() == null) {
+            return values.present;
+        }
+        if (values.kinds != 0 && values.kinds != query.kind()) {
+            return null;
+        }
+        return values.values.contains(query.literal());
+    }
+
+    private JsonNode resolvePrefix(Query query) {
+        JsonNode current = root;
+        for (String segment : query.prefix()) {
+            if (current.isObject() && !Character.isDigit(segment.charAt(0))) {
+                current = current.get(segment);
+            } else if (current.isArray() && Character.isDigit(segment.charAt(0))) {
+                current = current.get(Integer.parseInt(segment));
+            } else {
+                return null;
+            }
+            if (current == null || !current.isContainerNode()) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static Values collect(JsonNode array, List<String> field) {
+        Values values = new Values();
+        for (JsonNode element : array) {
+            if (element.isArray()) {
+                values.unanswerable = true;
+                return values;
+            }
+            values.add(element, field);
+        }
+        return values;
+    }
+
+    /**
+     * A parsed simple expression.
+     *
+     * @param prefix  the segments of the filtered node
+     * @param field   the path inside a filtered element, empty to compare the element itself
+     * @param literal the value to compare with, or null for an existence check
+     * @param kind    the kind of the literal
+     */
+    record Query(List<String> prefix, List<String> field, Object literal, int kind) {
+    }
+
+    /**
+     * The values found at one filter path of the elements of an array.
+     */
+    private static final class Values {
+        private final Set<Object> values = new HashSet<>();
+        private int kinds;
+        private boolean present;
+        private boolean unanswerable;
+
+        private void add(JsonNode element, List<String> field) {
+            JsonNode current = element;
+            for (int i = 0; i < field.size(); i++) {
+                if (!current.isObject()) {
+                    // a scalar element simply does not match, anything else deeper is left to JsonPath
+                    unanswerable |= i > 0;
+                    return;
+                }
+                current = current.get(field.get(i));
+                if (current == null) {
+                    return;
+                }
+            }
+            present = true;
+            if (current.isTextual()) {
+                kinds |= KIND_TEXT;
+                values.add(current.textValue());
+            } else if (current.isNumber()) {
+                kinds |= KIND_NUMBER;
+                values.add(current.decimalValue().stripTrailingZeros());
+            } else if (current.isBoolean()) {
+                kinds |= KIND_BOOLEAN;
+                values.add(current.booleanValue());
+            } else {
+                kinds |= KIND_OTHER;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.json.builder.helper;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The evaluation of a rule, or of one of its expressions, reported to a {@link ValidationListener}.
+ */
+@Value
+@Builder
+public class ValidationEvent {
+
+    /**
+     * The branch of the rule book an expression belongs to.
+     */
+    public enum Branch {
+        /** an expression of a direct check */
+        DIRECT,
+        /** the condition of an indirect check */
+        INDIRECT_CONDITION,
+        /** an inner expression of an indirect check, evaluated on the nodes matched by the condition */
+        INDIRECT
+    }
+
+    String ruleDescription;
+    /** the evaluated expression, or null for a rule event */
+    String expression;
+    Branch branch;
+    long nanos;
+    /** the number of matched nodes; an expression answered from the path index reports 1 for a match */
+    int matchedCount;
+    boolean passed;
+    /** whether the expression was answered from the path index instead of JsonPath */
+    boolean indexed;
+}
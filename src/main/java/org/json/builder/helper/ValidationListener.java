@@ -0,0 +1,27 @@
+package org.json.builder.helper;
+
+/**
+ * Receives profiling events from {@link JsonValidator}.
+ * Listeners are registered with {@link JsonValidator#addListener(ValidationListener)} and are called on the
+ * validating thread, so they must be thread-safe when documents are validated in parallel.
+ * While no listener is registered, the validator does not measure anything.
+ */
+public interface ValidationListener {
+
+    /**
+     * Called after a single expression of a rule has been evaluated.
+     *
+     * @param event the evaluation of the expression
+     */
+    default void onExpression(ValidationEvent event) {
+    }
+
+    /**
+     * Called after all expressions of a rule have been evaluated. The event has no expression, its time covers
+     * the whole rule and its matched count is the sum over the evaluated expressions.
+     *
+     * @param event the evaluation of the rule
+     */
+    default void onRule(ValidationEvent event) {
+    }
+}
@@ -0,0 +1,70 @@
+package org.json.builder.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes a 64-bit structural hash of every subtree and caches it per object and array node, so every subtree
+ * is hashed once no matter how often it is compared. Nodes that are equal by {@link JsonNode#equals(Object)} have
+ * the same hash: the hash of an object does not depend on the order of its fields, the hash of an array does
+ * depend on the order of its elements. Different hashes prove that two subtrees differ, equal hashes have to be
+ * confirmed.
+ *
+ * <p>Internal: shared by {@code core} and {@code helper} only. This class is not part of the API of the library
+ * and may change or be removed in any release.</p>
+ */
+public final class SubtreeHasher {
+
+    private static final long OBJECT_SEED = 0x6A09E667F3BCC909L;
+    private static final long ARRAY_SEED = 0xBB67AE8584CAA73BL;
+
+    private final Map<JsonNode, Long> hashes = new IdentityHashMap<>();
+
+    /**
+     * @param node the root of the subtree
+     * @return the structural hash of the subtree
+     */
+    public long hash(JsonNode node) {
+        if (!node.isContainerNode()) {
+            return mix(node.hashCode() * 31L + node.getNodeType().ordinal());
+        }
+        Long cached = hashes.get(node);
+        if (cached != null) {
+            return cached;
+        }
+        long hash;
+        if (node.isObject()) {
+            hash = OBJECT_SEED;
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                // a sum does not depend on the order of the fields
+                hash += mix(field.getKey().hashCode() * 0x9E3779B97F4A7C15L ^ hash(field.getValue()));
+            }
+        } else {
+            hash = ARRAY_SEED;
+            for (JsonNode element : node) {
+                hash = hash * 31 + hash(element);
+            }
+        }
+        hash = mix(hash);
+        hashes.put(node, hash);
+        return hash;
+    }
+
+    /**
+     * @return true if both nodes are equal, checking the cheap cases first
+     */
+    public boolean same(JsonNode first, JsonNode second) {
+        return first == second || hash(first) == hash(second) && first.equals(second);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
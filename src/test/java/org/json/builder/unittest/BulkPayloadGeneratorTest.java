@@ -0,0 +1,101 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.BulkPayloadGenerator;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.NodeType;
+import org.json.builder.exception.JsonBuilderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkPayloadGeneratorTest {
+
+    private static final String BASE = "{\"name\":\"John\",\"age\":30,\"address\":{\"city\":\"Paris\"}}";
+
+    private static JsonNode base() {
+        return JsonBuilder.objectBuilder().fromJsonString(BASE).buildAsJsonNode();
+    }
+
+    @Test
+    void generate_fromCsv_shouldApplyRowsLikeBuilderUpdates() {
+        String csv = "name,age:Integer,address.city,tags[1]\n"
+                + "\"Doe, Jane\",41,Skip,x\r\n"
+                + "\n"
+                + "\"Say \"\"hi\"\"\",7\n";
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = new BulkPayloadGenerator(base()).workers(1).generate(new StringReader(csv), outputStream);
+
+        String first = JsonBuilder.objectBuilder().fromJsonString(BASE)
+                .update("name", "Doe, Jane")
+                .update("age", "41", NodeType.INTEGER)
+                .update("address.city", "Skip")
+                .update("tags[1]", "x")
+                .build().buildAsJsonNode().toString();
+        String second = JsonBuilder.objectBuilder().fromJsonString(BASE)
+                .update("name", "Say \"hi\"")
+                .update("age", "7", NodeType.INTEGER)
+                .build().buildAsJsonNode().toString();
+        assertEquals(2, count);
+        assertEquals(first + "\n" + second + "\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void generate_withManyWorkers_shouldKeepRowOrder() {
+        List<List<String>> rows = IntStream.range(0, 1000).mapToObj(i -> List.of(String.valueOf(i))).toList();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = new BulkPayloadGenerator(base()).workers(4).batchSize(7)
+                .generate(List.of("age:Long"), rows.iterator(), outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1000, count);
+        assertEquals(1000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(i, JsonBuilder.objectBuilder().fromJsonString(lines[i]).getNodeAt("age").asInt());
+        }
+    }
+
+    @Test
+    void generate_withInvalidRow_shouldThrowException() {
+        List<List<String>> rows = List.of(List.of("1"), List.of("not a number"));
+
+        JsonBuilderException exception = assertThrows(JsonBuilderException.class, () -> new BulkPayloadGenerator(base())
+                .workers(2).batchSize(1).generate(List.of("age:Integer"), rows.iterator(), new ByteArrayOutputStream()));
+        assertTrue(exception.getMessage().startsWith("Cannot process record 2"));
+    }
+
+    @Test
+    void generate_calledTwice_shouldReuseWorkersAndKeepBaseUnchanged() {
+        List<List<String>> rows = IntStream.range(0, 100).mapToObj(i -> List.of("City " + i, String.valueOf(i))).toList();
+
+        try (BulkPayloadGenerator generator = new BulkPayloadGenerator(base()).workers(3).batchSize(5)) {
+            for (int run = 0; run < 2; run++) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                generator.generate(List.of("address.city", "address.zip:Integer"), rows.iterator(), outputStream);
+
+                String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+                assertEquals(100, lines.length);
+                assertEquals("{\"name\":\"John\",\"age\":30,\"address\":{\"city\":\"City 42\",\"zip\":42}}", lines[42]);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            generator.generate(List.of("address.city"), List.of(List.of()).iterator(), outputStream);
+            assertEquals(BASE + "\n", outputStream.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void workersAndBatchSize_notPositive_shouldThrowException() {
+        BulkPayloadGenerator generator = new BulkPayloadGenerator(base());
+
+        assertThrows(IllegalArgumentException.class, () -> generator.workers(0));
+        assertThrows(IllegalArgumentException.class, () -> generator.batchSize(-1));
+    }
+}
@@ -0,0 +1,52 @@
+package org.json.builder.unittest;
+
+import org.json.builder.core.CompiledPath;
+import org.json.builder.core.JsonBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPathTest {
+
+    @Test
+    void of_withSamePath_shouldReturnCachedInstance() {
+        assertSame(CompiledPath.of("order.items[0].price"), CompiledPath.of("order.items[0].price"));
+    }
+
+    @Test
+    void of_withFullCache_shouldKeepCachedPathsAndStopCachingNewOnes() {
+        CompiledPath.clearCache();
+        try {
+            CompiledPath first = CompiledPath.of("path0");
+            for (int i = 1; i <= 5000; i++) {
+                CompiledPath.of("path" + i);
+            }
+
+            assertSame(first, CompiledPath.of("path0"));
+            assertNotSame(CompiledPath.of("path5000"), CompiledPath.of("path5000"));
+            assertEquals("path5000", CompiledPath.of("path5000").getPath());
+        } finally {
+            CompiledPath.clearCache();
+        }
+        assertSame(CompiledPath.of("path5000"), CompiledPath.of("path5000"));
+    }
+
+    @Test
+    void compile_shouldMatchSlashSeparatedConversion() {
+        for (String path : List.of("name", "address.city", "friends[1].hobbies[0]", "[0].name", "a[0][1]", "")) {
+            assertEquals(JsonBuilder.convertJsonNodePathWithSlashSeparator(path), CompiledPath.compile(path).toPointer().toString());
+        }
+    }
+
+    @Test
+    void getSegments_shouldDecidePropertyNameAndArrayIndex() {
+        List<CompiledPath.Segment> segments = CompiledPath.of("friends[1].name").getSegments();
+        assertEquals(3, segments.size());
+        assertFalse(segments.get(0).isIndex());
+        assertEquals(1, segments.get(1).index());
+        assertEquals("name", segments.get(2).name());
+        assertTrue(CompiledPath.of("").isRoot());
+    }
+}
@@ -0,0 +1,76 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.json.builder.bean.Person;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.JsonCodecs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCodecsTest {
+
+    @AfterEach
+    void resetProfile() {
+        JsonCodecs.resetProfile();
+    }
+
+    @Test
+    void readerFor_withSameType_shouldReturnCachedReader() {
+        assertSame(JsonCodecs.readerFor(Person.class), JsonCodecs.readerFor(Person.class));
+        assertSame(JsonCodecs.listReaderFor(Person.class), JsonCodecs.listReaderFor(Person.class));
+    }
+
+    @Test
+    void listReaderFor_withUnknownProperties_shouldIgnoreThemWithoutChangingMapper() throws Exception {
+        List<Person> persons = JsonCodecs.listReaderFor(Person.class).readValue("[{\"name\":\"John\", \"age\":30, \"city\":\"Paris\"}]");
+        assertEquals("John", persons.get(0).getName());
+        assertTrue(JsonBuilder.MAPPER.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
+    @Test
+    void registerProfile_withCustomMapper_shouldDeriveReadersAndWritersFromIt() throws Exception {
+        JsonCodecs.registerProfile(new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE));
+        Person person = JsonCodecs.readerFor(Person.class).readValue("{\"Name\":\"John\", \"Age\":30}");
+        assertEquals(30, person.getAge());
+        assertEquals("{\"Name\":\"John\",\"Age\":30}", JsonCodecs.writer().writeValueAsString(person));
+    }
+
+    @Test
+    void readPojo_fromBytesStreamAndPath_shouldBindWithoutTree() throws Exception {
+        byte[] json = "{\"name\":\"John\", \"age\":30}".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.createTempFile("person", ".json");
+        try {
+            Files.write(file, json);
+            assertEquals(new Person("John", 30), JsonBuilder.readPojo(json, Person.class));
+            assertEquals(new Person("John", 30), JsonBuilder.readPojo(new ByteArrayInputStream(json), Person.class));
+            assertEquals(new Person("John", 30), JsonBuilder.readPojo(file, Person.class));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void writePojo_shouldWriteJsonAndLeaveStreamOpen() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new AssertionError("stream must not be closed");
+            }
+        };
+        JsonBuilder.writePojo(new Person("John", 30), outputStream);
+        assertEquals("{\"name\":\"John\",\"age\":30}", outputStream.toString(StandardCharsets.UTF_8));
+        assertEquals(JsonBuilder.extractPojoToPretryJsonString(new Person("John", 30)),
+                JsonBuilder.transformPojoToJsonNode(new Person("John", 30)).toPrettyString());
+    }
+}
@@ -0,0 +1,119 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.*;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.helper.JsonDiff;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonDiffTest {
+
+    private static JsonNode json(String json) {
+        return JsonBuilder.objectBuilder().fromJsonString(json).buildAsJsonNode();
+    }
+
+    @Test
+    void between_withEqualDocuments_shouldReturnEmptyPatch() {
+        assertTrue(JsonDiff.between(json("{\"a\":{\"b\":[1,2]},\"c\":\"x\"}"), json("{\"c\":\"x\",\"a\":{\"b\":[1,2]}}")).isEmpty());
+    }
+
+    @Test
+    void between_builders_shouldReturnFieldOperations() {
+        var source = JsonBuilder.objectBuilder().fromJsonString("{\"name\":\"John\",\"a/b\":1,\"address\":{\"city\":\"Paris\"},\"age\":30}");
+        var target = JsonBuilder.objectBuilder().fromJsonString("{\"name\":\"John\",\"address\":{\"city\":\"London\"},\"age\":\"30\",\"tags\":[]}");
+
+        assertEquals("[{\"op\":\"remove\",\"path\":\"/a~1b\"},"
+                        + "{\"op\":\"replace\",\"path\":\"/address/city\",\"value\":\"London\"},"
+                        + "{\"op\":\"replace\",\"path\":\"/age\",\"value\":\"30\"},"
+                        + "{\"op\":\"add\",\"path\":\"/tags\",\"value\":[]}]",
+                JsonDiff.between(source, target).toString());
+    }
+
+    @Test
+    void between_withArrays_shouldAlignElements() {
+        JsonNode source = json("{\"items\":[{\"id\":1},{\"id\":2,\"qty\":1},{\"id\":3},{\"id\":4},{\"id\":5}]}");
+        JsonNode target = json("{\"items\":[{\"id\":1},{\"id\":2,\"qty\":2},{\"id\":4},{\"id\":9},{\"id\":5},{\"id\":6}]}");
+
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/items/1/qty\",\"value\":2},"
+                        + "{\"op\":\"remove\",\"path\":\"/items/2\"},"
+                        + "{\"op\":\"add\",\"path\":\"/items/3\",\"value\":{\"id\":9}},"
+                        + "{\"op\":\"add\",\"path\":\"/items/5\",\"value\":{\"id\":6}}]",
+                JsonDiff.between(source, target).toString());
+    }
+
+    @Test
+    void between_toStream_shouldWriteSamePatch() {
+        JsonNode source = json("{\"a\":[1,2,3],\"b\":true}");
+        JsonNode target = json("{\"a\":[0,1,3],\"b\":null}");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = JsonDiff.between(source, target, outputStream);
+
+        assertEquals(JsonDiff.between(source, target).toString(), outputStream.toString(StandardCharsets.UTF_8));
+        assertEquals(3, count);
+    }
+
+    @Test
+    void between_appliedAsPatch_shouldTurnSourceIntoTarget() {
+        Random random = new Random(42);
+        for (int run = 0; run < 300; run++) {
+            ObjectNode source = randomObject(random, 3);
+            ObjectNode target = source.deepCopy();
+            mutate(random, target, 3);
+
+            JsonNode patch = JsonDiff.between(source, target);
+
+            assertEquals(target, JsonBuilder.objectBuilder().fromJsonString(source.toString()).applyPatch(patch).buildAsJsonNode(),
+                    () -> source + " => " + target + " with " + patch);
+        }
+    }
+
+    private static ObjectNode randomObject(Random random, int depth) {
+        ObjectNode node = JsonBuilder.MAPPER.createObjectNode();
+        for (int i = random.nextInt(5); i >= 0; i--) node.set("k" + random.nextInt(6), randomValue(random, depth));
+        return node;
+    }
+
+    private static JsonNode randomValue(Random random, int depth) {
+        int kind = random.nextInt(depth > 0 ? 5 : 3);
+        if (kind == 0) return IntNode.valueOf(random.nextInt(4));
+        if (kind == 1) return TextNode.valueOf("v" + random.nextInt(4));
+        if (kind == 2) return NullNode.getInstance();
+        if (kind == 3) return randomObject(random, depth - 1);
+        ArrayNode array = JsonBuilder.MAPPER.createArrayNode();
+        for (int i = random.nextInt(6); i > 0; i--) array.add(randomValue(random, depth - 1));
+        return array;
+    }
+
+    private static void mutate(Random random, JsonNode node, int depth) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            List<String> names = new ArrayList<>();
+            object.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                int action = random.nextInt(6);
+                if (action == 0) object.remove(name);
+                else if (action == 1) object.set(name, randomValue(random, depth));
+                else mutate(random, object.get(name), depth - 1);
+            }
+            if (random.nextInt(3) == 0) object.set("n" + random.nextInt(3), randomValue(random, depth));
+        } else if (node.isArray()) {
+            ArrayNode array = (ArrayNode) node;
+            for (int i = array.size() - 1; i >= 0; i--) {
+                int action = random.nextInt(6);
+                if (action == 0) array.remove(i);
+                else if (action == 1) array.insert(i, randomValue(random, depth));
+                else mutate(random, array.get(i), depth - 1);
+            }
+            if (random.nextInt(3) == 0) array.add(randomValue(random, depth));
+        }
+    }
+}
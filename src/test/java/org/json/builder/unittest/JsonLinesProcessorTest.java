@@ -0,0 +1,105 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.JsonLinesProcessor;
+import org.json.builder.core.JsonOperations;
+import org.json.builder.core.NodeType;
+import org.json.builder.exception.JsonBuilderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesProcessorTest {
+
+    private static final JsonOperations OPERATIONS = JsonOperations.builder()
+            .update("status", "DONE")
+            .update("meta", "{\"tags\":[]}", NodeType.OBJECTNODE)
+            .update("retries", 0, NodeType.INTEGER)
+            .remove("debug")
+            .build();
+
+    @Test
+    void applyTo_shouldMatchBuilderAndNotShareValues() {
+        String json = "{\"id\":1,\"debug\":true}";
+        JsonNode first = OPERATIONS.applyTo(JsonBuilder.objectBuilder().fromJsonString(json).buildAsJsonNode());
+        JsonNode second = OPERATIONS.applyTo(JsonBuilder.objectBuilder().fromJsonString(json).buildAsJsonNode());
+
+        JsonNode expected = JsonBuilder.objectBuilder().fromJsonString(json)
+                .update("status", "DONE")
+                .update("meta", "{\"tags\":[]}", NodeType.OBJECTNODE)
+                .update("retries", 0, NodeType.INTEGER)
+                .remove("debug")
+                .build().buildAsJsonNode();
+        assertEquals(expected.toString(), first.toString());
+        assertNotSame(first.get("meta"), second.get("meta"));
+    }
+
+    @Test
+    void process_withManyWorkers_shouldKeepRecordOrder() throws Exception {
+        String input = IntStream.range(0, 500).mapToObj(i -> "{\"id\":" + i + ",\"debug\":\"x\"}")
+                .collect(Collectors.joining("\n", "", "\n\n"));
+        Path inputFile = Files.createTempFile("records", ".jsonl");
+        Path outputFile = Files.createTempFile("records-out", ".jsonl");
+        try {
+            Files.writeString(inputFile, input);
+
+            long count = new JsonLinesProcessor(OPERATIONS).workers(3).batchSize(16).process(inputFile, outputFile);
+
+            List<String> lines = Files.readAllLines(outputFile);
+            assertEquals(500, count);
+            assertEquals(500, lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                assertEquals("{\"id\":" + i + ",\"status\":\"DONE\",\"meta\":{\"tags\":[]},\"retries\":0}", lines.get(i));
+            }
+        } finally {
+            Files.deleteIfExists(inputFile);
+            Files.deleteIfExists(outputFile);
+        }
+    }
+
+    @Test
+    void process_withInvalidRecord_shouldThrowException() {
+        byte[] input = "{\"id\":1}\n{not json}\n".getBytes(StandardCharsets.UTF_8);
+
+        JsonBuilderException exception = assertThrows(JsonBuilderException.class, () -> new JsonLinesProcessor(OPERATIONS)
+                .workers(1).process(new ByteArrayInputStream(input), new ByteArrayOutputStream()));
+        assertTrue(exception.getMessage().startsWith("Cannot process record 2"));
+    }
+
+    @Test
+    void process_withExecutorAndReusedProcessor_shouldProcessEveryRun() {
+        byte[] input = "{\"id\":1,\"debug\":true}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (JsonLinesProcessor processor = new JsonLinesProcessor(OPERATIONS).workers(2).batchSize(1)) {
+            for (int run = 0; run < 2; run++) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                assertEquals(2, processor.process(new ByteArrayInputStream(input), outputStream));
+                assertEquals("{\"id\":1,\"status\":\"DONE\",\"meta\":{\"tags\":[]},\"retries\":0}\n"
+                        + "{\"id\":2,\"status\":\"DONE\",\"meta\":{\"tags\":[]},\"retries\":0}\n", outputStream.toString(StandardCharsets.UTF_8));
+                processor.executor(executor);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void workersAndBatchSize_notPositive_shouldThrowException() {
+        JsonLinesProcessor processor = new JsonLinesProcessor(OPERATIONS);
+
+        assertThrows(IllegalArgumentException.class, () -> processor.workers(0));
+        assertThrows(IllegalArgumentException.class, () -> processor.batchSize(0));
+    }
+}
@@ -1,16 +1,32 @@
 package org.json.builder.unittest;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.json.builder.bean.Person;
+import org.json.builder.core.CompiledPath;
+import org.json.builder.core.JsonBuilder;
 import org.json.builder.core.JsonObjectBuilder;
+import org.json.builder.core.JsonPathVisitor;
+import org.json.builder.core.JsonSnapshot;
 import org.json.builder.core.NodeType;
+import org.json.builder.core.ReadMode;
 import org.json.builder.exception.JsonBuilderException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +74,33 @@ class JsonObjectBuilderTest {
         assertThrows(JsonBuilderException.class, () -> builder.fromJsonString(""));
     }
 
+    @Test
+    void fromBytes_withByteRange_shouldBuildJsonObject() {
+        byte[] body = "xx{\"name\":\"John\"}xx".getBytes(StandardCharsets.UTF_8);
+        builder.fromBytes(body, 2, body.length - 4);
+        assertEquals("John", builder.getNodeAt("name").asText());
+    }
+
+    @Test
+    void fromByteBuffer_withDirectBuffer_shouldBuildJsonObject() {
+        byte[] body = "{\"name\":\"John\"}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(body.length).put(body).flip();
+        builder.fromByteBuffer(buffer);
+        assertEquals("John", builder.getNodeAt("name").asText());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void fromPath_withMemoryMappedFile_shouldBuildJsonObject() {
+        builder.fromPath(Path.of("src/test/resources/sample.json"), ReadMode.MMAP);
+        assertEquals(new JsonObjectBuilder().fromJsonFile("src/test/resources/sample.json").buildAsJsonNode(), builder.buildAsJsonNode());
+    }
+
+    @Test
+    void fromPath_withInvalidFile_shouldThrowException() {
+        assertThrows(JsonBuilderException.class, () -> builder.fromPath(Path.of("invalid/path.json"), ReadMode.MMAP));
+    }
+
     @Test
     void fromEmptyNode_shouldCreateEmptyJsonObject() {
         builder.fromEmptyNode();
@@ -160,6 +203,25 @@ class JsonObjectBuilderTest {
         file.delete();
     }
 
+    @Test
+    void writeTo_withPath_shouldWritePrettyPrintedJson() throws IOException {
+        Path file = Files.createTempFile("json-builder", ".json");
+        builder.fromJsonString("{\"name\":\"John\", \"age\":30}")
+               .update("age", 31)
+               .writeTo(file);
+        assertEquals(builder.toPrettyString(), Files.readString(file));
+        Files.delete(file);
+    }
+
+    @Test
+    void writeTo_withOutputStream_shouldWriteCompactJson() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        builder.fromJsonString("{\"name\":\"John\", \"age\":30}")
+               .remove("age")
+               .writeTo(outputStream, false);
+        assertEquals("{\"name\":\"John\"}", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     void isBuilderEmpty_withEmptyBuilder_shouldReturnTrue() {
         assertTrue(builder.isBuilderEmpty());
@@ -187,6 +249,54 @@ class JsonObjectBuilderTest {
         assertEquals(30, person.getAge());
     }
 
+    @Test
+    void update_withCompiledPath_shouldUpdateJsonObject() {
+        CompiledPath city = CompiledPath.of("address.city");
+        builder.fromJsonString("{\"name\":\"John\"}")
+               .update(city, "New York")
+               .build();
+        assertEquals("New York", builder.getNodeAt(city).asText());
+        assertEquals("New York", builder.getNodeAt("address.city").asText());
+    }
+
+    @Test
+    void remove_withCompiledPath_shouldRemoveNode() {
+        builder.fromJsonString("{\"name\":\"John\", \"age\":30}")
+               .remove(CompiledPath.of("age"))
+               .build();
+        assertTrue(builder.getNodeAt("age").isMissingNode());
+    }
+
+    @Test
+    void build_withUpdatesSharingPrefix_shouldCreateMissingParents() {
+        builder.fromEmptyNode()
+               .update("order.items[1].price", 20, NodeType.INT)
+               .update("order.items[0].price", 10, NodeType.INT)
+               .update("order.id", "A1")
+               .build();
+        assertEquals("{\"order\":{\"items\":[{\"price\":10},{\"price\":20}],\"id\":\"A1\"}}", builder.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void build_withParentUpdatedAfterChild_shouldKeepOnlyLaterChanges() {
+        builder.fromEmptyNode()
+               .update("address.city", "Paris")
+               .update("address", "", NodeType.OBJECTNODE)
+               .update("address.zip", "75001")
+               .build();
+        assertEquals("{\"address\":{\"zip\":\"75001\"}}", builder.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void build_withArrayElementRemovals_shouldApplyThemInOrder() {
+        builder.fromJsonString("{\"items\":[{\"id\":0},{\"id\":1},{\"id\":2},{\"id\":3}]}")
+               .remove("items[0]")
+               .remove("items[1]")
+               .remove("items[0].id")
+               .build();
+        assertEquals("{\"items\":[{},{\"id\":3}]}", builder.buildAsJsonNode().toString());
+    }
+
     @Test
     void extractJsonPaths_shouldReturnAllPaths() {
         builder.fromJsonString("{\"name\":\"John\", \"address\":{\"city\":\"New York\"}}");
@@ -202,4 +312,227 @@ class JsonObjectBuilderTest {
         assertEquals("John", pathValueMap.get("name"));
         assertEquals("New York", pathValueMap.get("address.city"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void visitJsonPaths_shouldReportLeavesAndSkipSubtrees() {
+        builder.fromJsonString("{\"name\":\"John\",\"tags\":[\"a\",1,[\"b\"]],\"address\":{\"city\":\"Paris\"},\"secret\":{\"key\":\"x\"}}");
+        List<String> paths = new ArrayList<>();
+        List<String> containers = new ArrayList<>();
+
+        JsonBuilder.visitJsonPaths(builder.buildAsJsonNode(), new JsonPathVisitor() {
+            @Override
+            public void visitLeaf(CharSequence path, JsonNode leaf) {
+                paths.add(path + "=" + leaf.asText());
+            }
+
+            @Override
+            public boolean enterContainer(CharSequence path, JsonNode container) {
+                containers.add(path.toString());
+                return !"secret".contentEquals(path);
+            }
+        });
+
+        assertEquals(List.of("name=John", "tags[0]=a", "tags[2][0]=b", "address.city=Paris"), paths);
+        assertEquals(List.of("tags", "tags[2]", "address", "secret"), containers);
+        assertEquals(List.of("name", "tags[0]", "tags[2][0]", "address.city", "secret.key"), builder.extractJsonPaths());
+    }
+
+    @Test
+    void streamJsonPaths_shouldMatchExtractedPathsAndValues() throws IOException {
+        Path file = Files.createTempFile("paths", ".json");
+        try {
+            Files.writeString(file, "{\"name\":\"John\",\"age\":30,\"score\":1.50,\"big\":12345678901234567890,\"nil\":null,"
+                    + "\"tags\":[\"a\",1,true,null,{\"x\":2e3},[\"b\",[\"c\"]]],\"empty\":{},\"none\":[],"
+                    + "\"address\":{\"city\":\"New York\",\"geo\":{\"lat\":-0.5}}}");
+            builder.fromJsonFile(file.toFile());
+
+            try (Stream<String> paths = JsonBuilder.streamJsonPaths(file)) {
+                assertEquals(builder.extractJsonPaths(), paths.toList());
+            }
+            Map<String, String> streamed = new LinkedHashMap<>();
+            try (Stream<Map.Entry<String, String>> entries = JsonBuilder.streamJsonPathValues(file)) {
+                entries.forEach(entry -> streamed.put(entry.getKey(), entry.getValue()));
+            }
+            assertEquals(List.copyOf(builder.extractJsonPathValueMap().entrySet()), List.copyOf(streamed.entrySet()));
+
+            List<String> callbackPaths = new ArrayList<>();
+            JsonBuilder.streamJsonPathValues(file, (path, value) -> callbackPaths.add(path));
+            assertEquals(builder.extractJsonPaths(), callbackPaths);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void applyPatch_shouldApplyAllOperationsInOrder() {
+        JsonNode patch = JsonBuilder.arrayBuilder().fromJsonString("[{\"op\":\"test\",\"path\":\"/age\",\"value\":30.0},"
+                + "{\"op\":\"replace\",\"path\":\"/age\",\"value\":31},"
+                + "{\"op\":\"add\",\"path\":\"/tags/1\",\"value\":\"b\"},"
+                + "{\"op\":\"add\",\"path\":\"/tags/-\",\"value\":\"d\"},"
+                + "{\"op\":\"remove\",\"path\":\"/tags/0\"},"
+                + "{\"op\":\"copy\",\"from\":\"/address\",\"path\":\"/home\"},"
+                + "{\"op\":\"move\",\"from\":\"/address/city\",\"path\":\"/city\"}]").buildAsJsonNode();
+
+        builder.fromJsonString("{\"name\":\"John\",\"age\":30,\"tags\":[\"a\",\"c\"],\"address\":{\"city\":\"Paris\"}}")
+               .update("name", "Jane")
+               .applyPatch(patch);
+
+        assertEquals("{\"name\":\"Jane\",\"age\":31,\"tags\":[\"b\",\"c\",\"d\"],\"address\":{},\"home\":{\"city\":\"Paris\"},\"city\":\"Paris\"}",
+                builder.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void applyPatch_afterChangingParents_shouldResolveTheChangedContainers() {
+        JsonNode patch = JsonBuilder.arrayBuilder().fromJsonString("[{\"op\":\"replace\",\"path\":\"/items/0/id\",\"value\":10},"
+                + "{\"op\":\"add\",\"path\":\"/items/0\",\"value\":{\"id\":0}},"
+                + "{\"op\":\"replace\",\"path\":\"/items/0/id\",\"value\":5},"
+                + "{\"op\":\"test\",\"path\":\"/a/b/c\",\"value\":1},"
+                + "{\"op\":\"replace\",\"path\":\"/a/b\",\"value\":{\"c\":2}},"
+                + "{\"op\":\"add\",\"path\":\"/a/b/d\",\"value\":3},"
+                + "{\"op\":\"move\",\"from\":\"/a/b\",\"path\":\"/x\"},"
+                + "{\"op\":\"add\",\"path\":\"/x/e\",\"value\":4},"
+                + "{\"op\":\"add\",\"path\":\"/a~1b\",\"value\":1}]").buildAsJsonNode();
+
+        builder.fromJsonString("{\"items\":[{\"id\":1},{\"id\":2}],\"a\":{\"b\":{\"c\":1}}}").applyPatch(patch);
+
+        assertEquals("{\"items\":[{\"id\":5},{\"id\":10},{\"id\":2}],\"a\":{},\"x\":{\"c\":2,\"d\":3,\"e\":4},\"a/b\":1}",
+                builder.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void applyPatch_withFailingTest_shouldThrowExceptionAndUndoEarlierOperations() {
+        JsonNode patch = JsonBuilder.arrayBuilder().fromJsonString("[{\"op\":\"replace\",\"path\":\"/age\",\"value\":31},"
+                + "{\"op\":\"remove\",\"path\":\"/name\"},"
+                + "{\"op\":\"add\",\"path\":\"/tags/0\",\"value\":\"x\"},"
+                + "{\"op\":\"move\",\"from\":\"/tags/1\",\"path\":\"/first\"},"
+                + "{\"op\":\"replace\",\"path\":\"/tags/1\",\"value\":\"y\"},"
+                + "{\"op\":\"add\",\"path\":\"/tags/-\",\"value\":\"z\"},"
+                + "{\"op\":\"test\",\"path\":\"/age\",\"value\":30}]").buildAsJsonNode();
+        builder.fromJsonString("{\"name\":\"John\",\"age\":30,\"tags\":[\"a\",\"b\"],\"city\":\"Paris\"}");
+
+        JsonBuilderException exception = assertThrows(JsonBuilderException.class, () -> builder.applyPatch(patch));
+        assertEquals("JSON Patch test failed at path: /age", exception.getMessage());
+        assertEquals("{\"name\":\"John\",\"age\":30,\"tags\":[\"a\",\"b\"],\"city\":\"Paris\"}", builder.buildAsJsonNode().toString());
+
+        JsonNode rootChange = JsonBuilder.arrayBuilder().fromJsonString("[{\"op\":\"remove\",\"path\":\"/city\"},"
+                + "{\"op\":\"replace\",\"path\":\"\",\"value\":[1]}]").buildAsJsonNode();
+        assertThrows(JsonBuilderException.class, () -> builder.applyPatch(rootChange));
+        assertEquals("{\"name\":\"John\",\"age\":30,\"tags\":[\"a\",\"b\"],\"city\":\"Paris\"}", builder.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void applyMergePatch_shouldMergeObjectsAndRemoveNulls() {
+        JsonNode mergePatch = new JsonObjectBuilder().fromJsonString("{\"age\":null,\"address\":{\"zip\":\"75001\"},\"tags\":[\"x\"]}").buildAsJsonNode();
+
+        builder.fromJsonString("{\"name\":\"John\",\"age\":30,\"address\":{\"city\":\"Paris\"},\"tags\":[\"a\",\"b\"]}")
+               .applyMergePatch(mergePatch);
+
+        assertEquals("{\"name\":\"John\",\"address\":{\"city\":\"Paris\",\"zip\":\"75001\"},\"tags\":[\"x\"]}",
+                builder.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void snapshot_shouldKeepStateOfLastBuildUntilNextBuild() {
+        builder.fromJsonString("{\"name\":\"John\", \"address\":{\"city\":\"Paris\"}}");
+        JsonSnapshot snapshot = builder.snapshot();
+        assertSame(snapshot, builder.snapshot());
+
+        builder.update("address.city", "London");
+        assertSame(snapshot, builder.snapshot());
+        builder.build();
+        assertEquals("Paris", snapshot.getNodeAt("address.city").asText());
+        assertEquals("London", builder.snapshot().getNodeAt("address.city").asText());
+        assertSame(snapshot.getNodeAt("address.city"), snapshot.getNodeAt("address.city"));
+
+        ((ObjectNode) snapshot.getNodeAt("address")).put("city", "Rome");
+        assertEquals("Paris", snapshot.getNodeAt("address.city").asText());
+    }
+
+    @Test
+    void fork_shouldShareUntouchedNodesAndIsolateChanges() {
+        builder.fromJsonString("{\"name\":\"John\",\"address\":{\"city\":\"Paris\",\"zip\":\"75001\"},\"tags\":[\"a\",\"b\"]}");
+        JsonObjectBuilder first = builder.fork().update("address.city", "London");
+        JsonObjectBuilder second = builder.fork().remove("tags[0]").update("contact.phone", "123");
+        first.build();
+        second.build();
+        builder.update("name", "Jane").build();
+
+        assertEquals("{\"name\":\"Jane\",\"address\":{\"city\":\"Paris\",\"zip\":\"75001\"},\"tags\":[\"a\",\"b\"]}", builder.buildAsJsonNode().toString());
+        assertEquals("{\"name\":\"John\",\"address\":{\"city\":\"London\",\"zip\":\"75001\"},\"tags\":[\"a\",\"b\"]}", first.buildAsJsonNode().toString());
+        assertEquals("{\"name\":\"John\",\"address\":{\"city\":\"Paris\",\"zip\":\"75001\"},\"tags\":[\"b\"],\"contact\":{\"phone\":\"123\"}}", second.buildAsJsonNode().toString());
+        assertSame(builder.getNodeAt("tags"), first.getNodeAt("tags"));
+        assertSame(builder.getNodeAt("address"), second.getNodeAt("address"));
+
+        JsonObjectBuilder nested = first.fork().update("address.zip", "EC1A").remove("tags");
+        nested.clean();
+        assertTrue(nested.isBuilderEmpty());
+        assertEquals("75001", first.getNodeAt("address.zip").asText());
+        assertEquals(2, first.getNodeAt("tags").size());
+    }
+
+    @Test
+    void fork_withFailingPatch_shouldKeepCopyingOnWrite() {
+        builder.fromJsonString("{\"a\":{\"b\":1},\"c\":[1]}");
+        JsonObjectBuilder fork = builder.fork();
+        JsonNode failingPatch = JsonBuilder.arrayBuilder().fromJsonString("[{\"op\":\"test\",\"path\":\"/a/b\",\"value\":2}]").buildAsJsonNode();
+
+        assertThrows(JsonBuilderException.class, () -> fork.applyPatch(failingPatch));
+        assertThrows(JsonBuilderException.class, () -> fork.applyMergePatch(JsonBuilder.arrayBuilder().fromJsonString("[1]").buildAsJsonNode()));
+        fork.update("a.b", 42).remove("c[0]").build();
+
+        assertEquals("{\"a\":{\"b\":1},\"c\":[1]}", builder.buildAsJsonNode().toString());
+        assertEquals("{\"a\":{\"b\":\"42\"},\"c\":[]}", fork.buildAsJsonNode().toString());
+    }
+
+    @Test
+    void updateNode_withSharedNode_shouldCopyIt() {
+        ObjectNode shared = JsonBuilder.MAPPER.createObjectNode().put("city", "Paris");
+        JsonObjectBuilder second = new JsonObjectBuilder().updateNode("address", shared).build();
+
+        builder.updateNode("address", shared).build().update("address.city", "London").build();
+
+        assertEquals("Paris", shared.get("city").asText());
+        assertEquals("Paris", second.getNodeAt("address.city").asText());
+        assertEquals("London", builder.getNodeAt("address.city").asText());
+    }
+
+    @Test
+    void updateTyped_shouldSetNodesDirectly() {
+        builder.fromJsonString("{\"name\":\"John\"}")
+               .updateLong("id", 9007199254740993L)
+               .update("age", 31)
+               .updateDouble("score", 2.5)
+               .updateBoolean("active", true)
+               .updateDecimal("price", new BigDecimal("1.50"))
+               .updateDecimal("discount", null)
+               .updateNode("address", JsonBuilder.MAPPER.createObjectNode().put("city", "Paris"))
+               .update("nickname", "Skip")
+               .update("title", NodeType.IGNORE)
+               .build();
+
+        assertEquals("{\"name\":\"John\",\"id\":9007199254740993,\"age\":\"31\",\"score\":2.5,\"active\":true,"
+                + "\"price\":1.50,\"discount\":null,\"address\":{\"city\":\"Paris\"}}", builder.buildAsJsonNode().toString());
+        assertThrows(IllegalArgumentException.class, () -> builder.updateDouble("score", Double.NaN));
+    }
+
+    @Test
+    void update_withLongType_shouldKeepPrecisionOfLargeIntegers() {
+        builder.fromEmptyNode()
+               .update("id", "9007199254740993", NodeType.LONG)
+               .update("truncated", "3.9", NodeType.INT)
+               .update("boxed", Long.MIN_VALUE, NodeType.LONG)
+               .build();
+
+        assertEquals(9007199254740993L, builder.getNodeAt("id").longValue());
+        assertEquals(3, builder.getNodeAt("truncated").longValue());
+        assertEquals(Long.MIN_VALUE, builder.getNodeAt("boxed").longValue());
+    }
+
+    @Test
+    void fromString_shouldIgnoreCaseAndDefaultToString() {
+        assertEquals(NodeType.INTEGER, NodeType.fromString("Integer"));
+        assertEquals(NodeType.OBJECTNODE, NodeType.fromString("jsonOBJECT"));
+        assertEquals(NodeType.STRING, NodeType.fromString("Unknown"));
+        assertEquals(NodeType.STRING, NodeType.fromString(null));
+    }
+}
@@ -0,0 +1,56 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.helper.JsonPathFinder;
+import org.json.builder.helper.JsonPathIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPathIndexTest {
+
+    private static final JsonNode DOCUMENT = JsonBuilder.objectBuilder().fromJsonString(
+            "{\"name\":\"Alice\",\"friends\":[{\"name\":\"Bob\",\"pets\":[\"cat\"]},{\"name\":\"Carol\",\"pets\":[\"cat\"]}],"
+                    + "\"best\":{\"name\":\"Bob\",\"pets\":[\"cat\"]},\"tags\":[\"Alice\",[\"cat\"]]}").buildAsJsonNode();
+
+    private static JsonNode json(String json) {
+        return JsonBuilder.objectBuilder().fromJsonString("{\"value\":" + json + "}").getNodeAt("value");
+    }
+
+    @Test
+    void getJsonPath_shouldReturnFirstMatchInDocumentOrder() {
+        JsonPathIndex index = JsonPathIndex.of(DOCUMENT);
+
+        assertEquals("friends[0]", index.getJsonPath(json("{\"pets\":[\"cat\"],\"name\":\"Bob\"}")));
+        assertEquals("friends[0].pets", index.getJsonPath(json("[\"cat\"]")));
+        assertEquals("name", index.getJsonPath(TextNode.valueOf("Alice")));
+        assertEquals("", index.getJsonPath(DOCUMENT.deepCopy()));
+        assertNull(index.getJsonPath(json("{\"name\":\"Dave\"}")));
+    }
+
+    @Test
+    void getAllJsonPaths_shouldReturnEveryOccurrence() {
+        assertEquals(List.of("friends[0].pets", "friends[1].pets", "best.pets", "tags[1]"),
+                JsonPathFinder.getAllJsonPaths(DOCUMENT, json("[\"cat\"]")));
+        assertEquals(List.of("name", "tags[0]"), JsonPathIndex.of(DOCUMENT).getAllJsonPaths(TextNode.valueOf("Alice")));
+        assertTrue(JsonPathIndex.of(DOCUMENT).getAllJsonPaths(json("[\"dog\"]")).isEmpty());
+    }
+
+    @Test
+    void getJsonPath_shouldMatchEveryNodeOfTheDocument() {
+        JsonNode document = JsonBuilder.objectBuilder().fromJsonFile("src/test/resources/complexjson.json").buildAsJsonNode();
+        JsonPathIndex index = JsonPathIndex.of(document);
+
+        for (String path : JsonBuilder.objectBuilder().fromJsonFile("src/test/resources/complexjson.json").extractJsonPaths()) {
+            JsonNode node = JsonBuilder.getNodeAt(document, path);
+            String found = index.getJsonPath(node);
+            assertEquals(node, JsonBuilder.getNodeAt(document, found));
+            assertEquals(found, JsonPathFinder.getJsonPath(document, node.deepCopy()));
+            assertTrue(index.getAllJsonPaths(node).contains(path));
+        }
+    }
+}
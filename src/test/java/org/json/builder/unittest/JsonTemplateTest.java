@@ -0,0 +1,101 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.bean.Person;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.JsonTemplate;
+import org.json.builder.core.NodeType;
+import org.json.builder.exception.JsonBuilderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTemplateTest {
+
+    private static final String ORDER = "{\"orderId\":\"${orderId}\",\"customer\":{\"name\":\"${name}\",\"tier\":\"GOLD\"},"
+            + "\"items\":[{\"sku\":\"SKU-1\",\"quantity\":\"${quantity}\"}],\"note\":\"price is ${price}\"}";
+
+    @Test
+    void render_withPlaceholders_shouldMatchBuilderOutput() {
+        JsonNode template = JsonBuilder.objectBuilder().fromJsonString(ORDER).buildAsJsonNode();
+        JsonTemplate compiled = JsonTemplate.compile(template);
+
+        String rendered = compiled.render(Map.of("orderId", "A-1", "name", "Jane \"JD\" Doe", "quantity", 3));
+
+        String expected = JsonBuilder.objectBuilder().fromJsonString(ORDER)
+                .update("orderId", "A-1")
+                .update("customer.name", "Jane \"JD\" Doe")
+                .update("items[0].quantity", 3, NodeType.INTEGER)
+                .build()
+                .buildAsJsonNode().toString();
+        assertEquals(expected, rendered);
+        assertEquals(List.of("orderId", "name", "quantity"), compiled.getSlotNames());
+        assertEquals(ORDER, template.toString(), "the template node must not be modified");
+    }
+
+    @Test
+    void render_withSlotPaths_shouldDefaultToTemplateValues() {
+        JsonNode template = JsonBuilder.objectBuilder().fromJsonString("{\"a\":{\"b\":[1,{\"c\":true}]},\"d\":\"x\"}").buildAsJsonNode();
+        JsonTemplate compiled = JsonTemplate.compile(template, List.of("a.b[1].c", "d", "a.b[0]"));
+
+        assertEquals("{\"a\":{\"b\":[1,{\"c\":true}]},\"d\":\"x\"}", compiled.render(Map.of()));
+        Map<String, Object> values = new HashMap<>();
+        values.put("a.b[1].c", null);
+        values.put("a.b[0]", new Person("John", 30));
+        values.put("d", 2.5);
+        assertEquals("{\"a\":{\"b\":[{\"name\":\"John\",\"age\":30},{\"c\":null}]},\"d\":2.5}", compiled.render(values));
+    }
+
+    @Test
+    void render_toStream_shouldWriteSameBytes() {
+        JsonTemplate compiled = JsonTemplate.compile(JsonBuilder.objectBuilder().fromJsonString(ORDER).buildAsJsonNode());
+        Map<String, Object> values = Map.of("orderId", "A-1", "name", "Jane", "quantity", 1);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        compiled.render(values, outputStream);
+
+        assertEquals(compiled.render(values), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void render_withMissingVariable_shouldThrowException() {
+        JsonTemplate compiled = JsonTemplate.compile(JsonBuilder.objectBuilder().fromJsonString(ORDER).buildAsJsonNode());
+
+        JsonBuilderException exception = assertThrows(JsonBuilderException.class,
+                () -> compiled.render(Map.of("orderId", "A-1", "quantity", 1)));
+        assertEquals("Missing template variable: name", exception.getMessage());
+    }
+
+    @Test
+    void compile_withUnknownSlotPath_shouldThrowException() {
+        JsonNode template = JsonBuilder.objectBuilder().fromJsonString(ORDER).buildAsJsonNode();
+
+        assertThrows(JsonBuilderException.class, () -> JsonTemplate.compile(template, List.of("customer.id")));
+    }
+
+    @Test
+    void compile_withRepeatedSlotPath_shouldCreateOneSlot() {
+        JsonNode template = JsonBuilder.objectBuilder().fromJsonString("{\"a\":1,\"b\":2}").buildAsJsonNode();
+
+        JsonTemplate compiled = JsonTemplate.compile(template, List.of("a", "a"));
+
+        assertEquals(List.of("a"), compiled.getSlotNames());
+        assertEquals("{\"a\":1,\"b\":2}", compiled.render(Map.of()));
+        assertEquals("{\"a\":3,\"b\":2}", compiled.render(Map.of("a", 3)));
+    }
+
+    @Test
+    void compile_withNestedSlotPaths_shouldThrowException() {
+        JsonNode template = JsonBuilder.objectBuilder().fromJsonString("{\"a\":{\"b\":[1,2]}}").buildAsJsonNode();
+
+        JsonBuilderException exception = assertThrows(JsonBuilderException.class,
+                () -> JsonTemplate.compile(template, List.of("a.b[1]", "a")));
+        assertEquals("Template slot paths overlap: a, a.b[1]", exception.getMessage());
+    }
+}
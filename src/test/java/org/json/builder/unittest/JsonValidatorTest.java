@@ -1,10 +1,23 @@
 package org.json.builder.unittest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.JsonBuilder;
 import org.json.builder.exception.JsonBuilderException;
+import org.json.builder.helper.AggregatingValidationListener;
+import org.json.builder.helper.CompiledRuleBook;
 import org.json.builder.helper.JsonValidator;
+import org.json.builder.helper.bean.DirectValidation;
+import org.json.builder.helper.bean.RuleBook;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JsonValidatorTest {
@@ -48,4 +61,71 @@ class JsonValidatorTest {
         String actualJsonFile = "src/test/resources/non-existent-actual-json.json";
         assertThrows(JsonBuilderException.class, () -> JsonValidator.verify(ruleBookFile, actualJsonFile));
     }
-}
\ No newline at end of file
+
+    @Test
+    void verify_CompiledRuleBook_MatchesFileBasedVerify() {
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile("src/test/resources/invalid-rule-book.json");
+        JsonNode actualJson = JsonBuilder.objectBuilder().fromJsonFile("src/test/resources/valid-actual-json.json").buildAsJsonNode();
+        List<String> expected = JsonValidator.verify("src/test/resources/invalid-rule-book.json", "src/test/resources/valid-actual-json.json");
+        assertEquals(expected, JsonValidator.verify(ruleBook, actualJson));
+        assertEquals(expected, JsonValidator.verify(ruleBook, actualJson));
+    }
+
+    @Test
+    void verify_CompiledRuleBook_IsReusableAcrossThreads() {
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile("src/test/resources/valid-rule-book.json");
+        JsonNode actualJson = JsonBuilder.objectBuilder().fromJsonFile("src/test/resources/valid-actual-json.json").buildAsJsonNode();
+        assertTrue(IntStream.range(0, 200).parallel().allMatch(i -> JsonValidator.verify(ruleBook, actualJson).isEmpty()));
+    }
+
+    @Test
+    void verifyAll_MultipleFiles_ReturnsReportInInputOrder() {
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile("src/test/resources/valid-rule-book.json");
+        List<Path> files = List.of(
+                Path.of("src/test/resources/valid-actual-json.json"),
+                Path.of("src/test/resources/complexjson.json"),
+                Path.of("src/test/resources/non-existent-actual-json.json"));
+
+        Map<Path, List<String>> report = JsonValidator.verifyAll(ruleBook, files.stream(), ForkJoinPool.commonPool(), 2);
+        assertEquals(files, new ArrayList<>(report.keySet()));
+        assertTrue(report.get(files.get(0)).isEmpty());
+        assertEquals(JsonValidator.verify(ruleBook, files.get(1).toFile()), report.get(files.get(1)));
+        assertEquals(1, report.get(files.get(2)).size());
+    }
+
+    @Test
+    void verify_WithPathIndex_MatchesJsonPathEvaluation() {
+        List<RuleBook> rules = new ArrayList<>();
+        for (String expression : List.of("$[?(@.name == 'Alice')]", "$[?(@.name == 'Bob')]", "$.friends[?(@.age == 32)]",
+                "$.friends[?(@.age == 32.0)]", "$.friends[?(@.age == '32')]", "$.friends[?(@.pets)]", "$.friends[?(@.cars)]",
+                "$.friends[1].hobbies[?(@ == 'writing')]", "$.friends[?(@.age > 30)]")) {
+            rules.add(RuleBook.builder().description(expression).dirCheck(true)
+                    .dirValidation(DirectValidation.builder().expressions(List.of(expression)).build()).build());
+        }
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile(rules);
+        JsonNode actualJson = JsonBuilder.objectBuilder().fromJsonFile("src/test/resources/valid-actual-json.json").buildAsJsonNode();
+
+        List<String> expected = JsonValidator.verify(ruleBook, actualJson, false);
+        assertEquals(List.of("$[?(@.name == 'Bob')] => $[?(@.name == 'Bob')]", "$.friends[?(@.cars)] => $.friends[?(@.cars)]"), expected);
+        assertEquals(expected, JsonValidator.verify(ruleBook, actualJson, true));
+    }
+
+    @Test
+    void verify_WithListener_ReportsRuleAndExpressionEvents() {
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile("src/test/resources/invalid-rule-book.json");
+        AggregatingValidationListener profiler = new AggregatingValidationListener();
+        JsonValidator.addListener(profiler);
+        try {
+            JsonValidator.verify(ruleBook, new File("src/test/resources/valid-actual-json.json"));
+            JsonValidator.verify(ruleBook, new File("src/test/resources/valid-actual-json.json"));
+        } finally {
+            JsonValidator.removeListener(profiler);
+        }
+        List<AggregatingValidationListener.Statistics> rules = profiler.topSlowestRules(10);
+        assertEquals(ruleBook.size(), rules.size());
+        assertTrue(rules.stream().allMatch(statistics -> statistics.getEvaluations() == 2 && statistics.getTotalNanos() > 0));
+        assertEquals(4, rules.stream().mapToLong(AggregatingValidationListener.Statistics::getFailures).sum());
+        assertEquals(1, profiler.topSlowestExpressions(1).size());
+        assertTrue(profiler.dumpTopSlowest(3).startsWith("Slowest rules:"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.JsonObjectBuilder;
+import org.json.builder.core.LazyJsonObjectBuilder;
+import org.json.builder.core.NodeType;
+import org.json.builder.exception.JsonBuilderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyJsonObjectBuilderTest {
+
+    private static final String JSON = "{ \"name\" : \"John\",\n  \"age\": 30,\n  \"address\": {\"city\": \"Paris\", \"zip\": \"75001\"},\n  \"friends\": [ {\"name\": \"Jane\"}, {\"name\": \"Bob\"} ] }";
+
+    @Test
+    void writeTo_withoutChanges_shouldCopySourceVerbatim() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new LazyJsonObjectBuilder().fromJsonString("  " + JSON + "\n").writeTo(outputStream, false);
+        assertEquals(JSON, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeTo_withChanges_shouldMatchJsonObjectBuilder() throws Exception {
+        LazyJsonObjectBuilder lazyBuilder = new LazyJsonObjectBuilder();
+        JsonObjectBuilder eagerBuilder = new JsonObjectBuilder();
+        lazyBuilder.fromJsonString(JSON);
+        eagerBuilder.fromJsonString(JSON);
+        for (JsonBuilder builder : List.of(lazyBuilder, eagerBuilder)) {
+            builder.update("address.city", "London")
+                    .update("friends[1].age", "25", NodeType.INTEGER)
+                    .update("friends[3].name", "Eve")
+                    .update("contact.phones[0]", "123")
+                    .remove("age")
+                    .remove("friends[0]");
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        lazyBuilder.writeTo(outputStream, false);
+        JsonNode written = JsonBuilder.MAPPER.readTree(outputStream.toByteArray());
+        assertEquals(eagerBuilder.buildAsJsonNode().toString(), written.toString());
+        assertTrue(outputStream.toString(StandardCharsets.UTF_8).contains("\"address\":{\"city\":\"London\",\"zip\": \"75001\"}"));
+    }
+
+    @Test
+    void getNodeAt_shouldInflateOnlyTheRequestedNode() {
+        LazyJsonObjectBuilder builder = new LazyJsonObjectBuilder();
+        builder.fromJsonString(JSON);
+        assertEquals("Bob", builder.getNodeAt("friends[1].name").asText());
+        assertTrue(builder.getNodeAt("friends[5].name").isMissingNode());
+        assertTrue(builder.getNodeAt("name.first").isMissingNode());
+        assertEquals(2, builder.getNodeAt("address").size());
+    }
+
+    @Test
+    void update_withScalarParent_shouldThrowIllegalArgumentException() {
+        LazyJsonObjectBuilder builder = new LazyJsonObjectBuilder();
+        builder.fromJsonString(JSON).update("name.first", "John");
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void fromJsonString_withArrayRoot_shouldThrowJsonBuilderException() {
+        assertThrows(JsonBuilderException.class, () -> new LazyJsonObjectBuilder().fromJsonString("[1, 2]"));
+    }
+
+    @Test
+    void fork_shouldIsolateChangesOfEachVariant() {
+        LazyJsonObjectBuilder base = new LazyJsonObjectBuilder().fromJsonString(JSON).update("address.city", "London");
+        LazyJsonObjectBuilder variant = base.fork().update("address.zip", "EC1A").remove("friends[0]");
+        base.update("age", "31", NodeType.INTEGER);
+
+        assertEquals("{\"name\":\"John\",\"age\":31,\"address\":{\"city\":\"London\",\"zip\":\"75001\"},\"friends\":[{\"name\":\"Jane\"},{\"name\":\"Bob\"}]}",
+                base.buildAsJsonNode().toString());
+        assertEquals("{\"name\":\"John\",\"age\":30,\"address\":{\"city\":\"London\",\"zip\":\"EC1A\"},\"friends\":[{\"name\":\"Bob\"}]}",
+                variant.buildAsJsonNode().toString());
+    }
+}
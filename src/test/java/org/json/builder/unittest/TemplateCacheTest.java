@@ -0,0 +1,101 @@
+package org.json.builder.unittest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.json.builder.core.JsonBuilder;
+import org.json.builder.core.TemplateCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateCacheTest {
+
+    private static final String TEMPLATE = "{\"name\":\"John\",\"address\":{\"city\":\"Paris\"},\"tags\":[\"a\",\"b\"]}";
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        TemplateCache.uninstall();
+    }
+
+    @Test
+    void fromJsonFile_shouldParseEachFileOnceAndHandOutCopies() throws IOException {
+        Path file = Files.writeString(directory.resolve("template.json"), TEMPLATE);
+        TemplateCache cache = TemplateCache.builder().build();
+        TemplateCache.install(cache);
+
+        JsonBuilder first = JsonBuilder.objectBuilder().fromJsonFile(file.toString());
+        ((ObjectNode) first.getNodeAt("address")).put("city", "London");
+        JsonBuilder second = JsonBuilder.objectBuilder().fromJsonFile(file.toFile());
+
+        assertEquals("Paris", second.getNodeAt("address.city").asText());
+        assertEquals(new TemplateCache.Stats(1, 1, 0, 1, 7), cache.stats());
+    }
+
+    @Test
+    void fromJsonFile_withCopyOnWrite_shouldShareUntouchedNodes() throws IOException {
+        Path file = Files.writeString(directory.resolve("template.json"), TEMPLATE);
+        TemplateCache.install(TemplateCache.builder().copyOnWrite(true).build());
+
+        JsonBuilder first = JsonBuilder.objectBuilder().fromJsonFile(file.toString()).update("address.city", "London").remove("tags[0]");
+        first.build();
+        JsonBuilder second = JsonBuilder.objectBuilder().fromJsonFile(file.toString());
+
+        assertEquals("{\"name\":\"John\",\"address\":{\"city\":\"London\"},\"tags\":[\"b\"]}", first.buildAsJsonNode().toString());
+        assertEquals(TEMPLATE, second.buildAsJsonNode().toString());
+        assertSame(first.getNodeAt("name"), second.getNodeAt("name"));
+    }
+
+    @Test
+    void fromJsonFile_withChangedFile_shouldReadItAgain() throws IOException {
+        Path file = Files.writeString(directory.resolve("template.json"), TEMPLATE);
+        TemplateCache cache = TemplateCache.builder().build();
+        TemplateCache.install(cache);
+        JsonBuilder.objectBuilder().fromJsonFile(file.toString());
+
+        Files.writeString(file, "{\"name\":\"Jane\"}");
+
+        assertEquals("Jane", JsonBuilder.objectBuilder().fromJsonFile(file.toString()).getNodeAt("name").asText());
+        assertEquals(new TemplateCache.Stats(0, 2, 0, 1, 2), cache.stats());
+    }
+
+    @Test
+    void fromJsonFile_overMaxWeight_shouldEvictLeastRecentlyUsed() throws IOException {
+        Path first = Files.writeString(directory.resolve("first.json"), "{\"a\":1,\"b\":2}");
+        Path second = Files.writeString(directory.resolve("second.json"), "{\"c\":3}");
+        Path third = Files.writeString(directory.resolve("third.json"), "{\"d\":4,\"e\":5}");
+        TemplateCache cache = TemplateCache.builder().maxWeight(6).build();
+        TemplateCache.install(cache);
+
+        JsonBuilder.objectBuilder().fromJsonFile(first.toString());
+        JsonBuilder.objectBuilder().fromJsonFile(second.toString());
+        JsonBuilder.objectBuilder().fromJsonFile(first.toString());
+        JsonBuilder.objectBuilder().fromJsonFile(third.toString());
+        JsonBuilder.objectBuilder().fromJsonFile(first.toString());
+        JsonBuilder.objectBuilder().fromJsonFile(second.toString());
+
+        assertEquals(new TemplateCache.Stats(2, 4, 2, 2, 5), cache.stats());
+    }
+
+    @Test
+    void fromJsonFile_withBadFileOnFork_shouldKeepCopyingOnWrite() throws IOException {
+        Path truncated = Files.writeString(directory.resolve("bad.json"), "{\"a\":");
+        Path array = Files.writeString(directory.resolve("array.json"), "[1]");
+        JsonBuilder parent = JsonBuilder.objectBuilder().fromJsonString("{\"a\":{\"b\":1}}");
+        JsonBuilder fork = parent.fork();
+
+        assertThrows(Exception.class, () -> fork.fromJsonFile(truncated.toString()));
+        assertThrows(ClassCastException.class, () -> fork.fromJsonFile(array.toString()));
+        fork.update("a.b", "9").build();
+
+        assertEquals("{\"a\":{\"b\":1}}", parent.buildAsJsonNode().toString());
+        assertEquals("{\"a\":{\"b\":\"9\"}}", fork.buildAsJsonNode().toString());
+    }
+}